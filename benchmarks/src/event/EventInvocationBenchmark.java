@@ -0,0 +1,86 @@
+package event;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the cost of invoking an {@code EventMethod} through {@code Method.invoke}, as the
+ * {@code MethodExecutor} used to, against the {@code EventInvoker} it generates for the method and
+ * against calling the method directly.
+ *
+ * <pre>
+ * gradle :benchmarks:jmh -Pinclude=EventInvocationBenchmark
+ * </pre>
+ *
+ * @author Albert Beaupre
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventInvocationBenchmark {
+
+	private CountingListener listener;
+	private CountedEvent event;
+	private Method method;
+	private MethodExecutor executor;
+
+	@Setup
+	public void setup() throws NoSuchMethodException {
+		listener = new CountingListener();
+		event = new CountedEvent();
+		method = CountingListener.class.getMethod("onEvent", CountedEvent.class);
+		executor = new MethodExecutor(listener, method);
+	}
+
+	@Benchmark
+	public void reflection(Blackhole blackhole) throws Exception {
+		method.invoke(listener, event);
+		blackhole.consume(event.count);
+	}
+
+	@Benchmark
+	public void invoker(Blackhole blackhole) {
+		executor.execute(event);
+		blackhole.consume(event.count);
+	}
+
+	@Benchmark
+	public void direct(Blackhole blackhole) {
+		listener.onEvent(event);
+		blackhole.consume(event.count);
+	}
+
+	/**
+	 * The event counted by a {@code CountingListener}.
+	 */
+	public static class CountedEvent extends Event {
+
+		private int count; // The amount of times this event has been listened to
+	}
+
+	/**
+	 * Listens to a {@code CountedEvent} by counting it.
+	 */
+	public static class CountingListener implements EventListener {
+
+		@EventMethod
+		public void onEvent(CountedEvent event) {
+			event.count++;
+		}
+	}
+}
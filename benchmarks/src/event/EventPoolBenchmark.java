@@ -0,0 +1,66 @@
+package event;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import entity.geometry.Location;
+import entity.geometry.map.AreaChangeType;
+import event.impl.EntityLocationChangeEvent;
+
+/**
+ * Measures the allocations of calling an {@code EntityLocationChangeEvent} for every location change,
+ * constructed for every call as it used to be, against acquiring it from its {@code EventPool} and
+ * releasing it once called as {@code Entity.setLocation} does. The allocations per call are reported
+ * as {@code gc.alloc.rate.norm} by the gc profiler.
+ *
+ * <pre>
+ * gradle :benchmarks:jmh -Pinclude=EventPoolBenchmark -Pprof=gc
+ * </pre>
+ *
+ * @author Albert Beaupre
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventPoolBenchmark {
+
+	private EventManager manager;
+	private Location previous, current;
+
+	@Setup
+	public void setup() {
+		manager = new EventManager();
+		manager.registerEvent(EntityLocationChangeEvent.class, event -> {});
+		previous = new Location(null, 3200, 3200, 0);
+		current = new Location(null, 3201, 3200, 0);
+	}
+
+	@Benchmark
+	public void constructed(Blackhole blackhole) {
+		EntityLocationChangeEvent event = new EntityLocationChangeEvent(null, AreaChangeType.SERVER, current, previous);
+		manager.callEvent(event);
+		blackhole.consume(event);
+	}
+
+	@Benchmark
+	public void pooled(Blackhole blackhole) {
+		EntityLocationChangeEvent event = EntityLocationChangeEvent.acquire(null, AreaChangeType.SERVER, current, previous);
+		manager.callEvent(event);
+		blackhole.consume(event.isConsumed());
+		event.release();
+	}
+}
@@ -0,0 +1,103 @@
+package infrastructure;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput of submitting a {@code Tick} from 8 producer threads while a single thread
+ * drains the submissions, through the {@code TickSubmissionQueue} and through the locked
+ * {@code ArrayList} the {@code TickThread} used to collect its submissions in.
+ *
+ * <p>
+ * Every submission is of a {@code Tick} constructed for it, so no offer to the
+ * {@code TickSubmissionQueue} is skipped for a {@code Tick} already waiting to be drained, and both
+ * drains apply every {@code Tick} to the wheel the same way. Each {@code Tick} is cancelled before
+ * it is submitted, so it never needs a {@code TickThread} to be queued to.
+ *
+ * <pre>
+ * gradle :benchmarks:jmh -Pinclude=TickSubmissionBenchmark
+ * </pre>
+ *
+ * @author Albert Beaupre
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TickSubmissionBenchmark {
+
+	private final TickSubmissionQueue queue = new TickSubmissionQueue();
+	private final TickWheel wheel = new TickWheel(0);
+	private final ArrayList<Tick> waitingList = new ArrayList<>();
+
+	@Benchmark
+	@Group("lockFree")
+	@GroupThreads(8)
+	public void submit(Producer producer) {
+		queue.offer(producer.next());
+	}
+
+	@Benchmark
+	@Group("lockFree")
+	@GroupThreads(1)
+	public void drain() {
+		queue.drainTo(wheel, 0);
+	}
+
+	@Benchmark
+	@Group("locked")
+	@GroupThreads(8)
+	public void submitLocked(Producer producer) {
+		synchronized (waitingList) {
+			waitingList.add(producer.next());
+		}
+	}
+
+	@Benchmark
+	@Group("locked")
+	@GroupThreads(1)
+	public void drainLocked() {
+		synchronized (waitingList) {
+			for (int i = 0; i < waitingList.size(); i++) {
+				Tick tick = waitingList.get(i);
+				if (tick.isCancelled()) {
+					wheel.unschedule(tick);
+				} else if (tick.isQueued()) {
+					tick.startTicking(0);
+					wheel.schedule(tick);
+				}
+			}
+			waitingList.clear();
+		}
+	}
+
+	/**
+	 * Constructs the ticks submitted by a single producer thread, a new one for every submission.
+	 */
+	@State(Scope.Thread)
+	public static class Producer {
+
+		Tick next() {
+			Tick tick = new Tick() {
+				@Override
+				public void tick() {}
+			};
+			tick.cancel();
+			return tick;
+		}
+	}
+}
@@ -0,0 +1,174 @@
+package event.processor;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedSourceVersion;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * The {@code EventMethodProcessor} class generates an {@code EventRegistration} for every concrete
+ * {@code EventListener} class with a public method annotated by {@code EventMethod}, so the
+ * {@code EventManager} can register the listener without reflection.
+ *
+ * <p>
+ * A generated registration is named after the binary name of the listener class followed by
+ * {@code $EventRegistration}, and calls every {@code EventMethod} of the listener directly,
+ * including any inherited from its superclasses. The same methods are registered as would be found
+ * by reflection: any public method with a single parameter annotated by {@code EventMethod}.
+ *
+ * <p>
+ * No registration is generated for a listener class that cannot be reached from its package, such
+ * as a private or anonymous class, or for a listener with an {@code EventMethod} whose event type
+ * cannot be reached; the {@code EventManager} registers those reflectively.
+ *
+ * @author Albert Beaupre
+ */
+@SupportedAnnotationTypes(EventMethodProcessor.EVENT_METHOD)
+@SupportedSourceVersion(SourceVersion.RELEASE_11)
+public class EventMethodProcessor extends AbstractProcessor {
+
+	static final String EVENT_METHOD = "event.EventMethod";
+	static final String EVENT_LISTENER = "event.EventListener";
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		TypeElement listenerType = processingEnv.getElementUtils().getTypeElement(EVENT_LISTENER);
+		if (listenerType == null)
+			return false;
+
+		List<TypeElement> types = new ArrayList<>();
+		for (TypeElement type : ElementFilter.typesIn(roundEnv.getRootElements()))
+			collect(type, types);
+		for (TypeElement type : types) {
+			if (type.getKind() != ElementKind.CLASS || type.getModifiers().contains(Modifier.ABSTRACT))
+				continue;
+			if (!processingEnv.getTypeUtils().isAssignable(processingEnv.getTypeUtils().erasure(type.asType()), processingEnv.getTypeUtils().erasure(listenerType.asType())))
+				continue;
+			List<ExecutableElement> methods = findEventMethods(type);
+			if (methods.isEmpty() || !isReachable(type, processingEnv.getElementUtils().getPackageOf(type)))
+				continue;
+			try {
+				generate(type, methods);
+			} catch (IOException e) {
+				processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Could not generate the EventRegistration: " + e.getMessage(), type);
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Adds the specified {@code type} and every type nested within it to the specified {@code types}.
+	 */
+	private static void collect(TypeElement type, List<TypeElement> types) {
+		types.add(type);
+		for (TypeElement nested : ElementFilter.typesIn(type.getEnclosedElements()))
+			collect(nested, types);
+	}
+
+	/**
+	 * Returns every public method of the specified {@code type}, declared or inherited, that has a
+	 * single parameter and is annotated by {@code EventMethod}. Returns an empty list if any of them
+	 * listens for an event type that cannot be reached.
+	 */
+	private List<ExecutableElement> findEventMethods(TypeElement type) {
+		List<ExecutableElement> methods = new ArrayList<>();
+		for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type))) {
+			if (!method.getModifiers().contains(Modifier.PUBLIC) || method.getParameters().size() != 1)
+				continue;
+			if (getEventMethod(method) == null)
+				continue;
+			TypeMirror parameter = processingEnv.getTypeUtils().erasure(method.getParameters().get(0).asType());
+			if (parameter.getKind() != TypeKind.DECLARED || !isReachable((TypeElement) ((DeclaredType) parameter).asElement(), processingEnv.getElementUtils().getPackageOf(type)))
+				return new ArrayList<>();
+			methods.add(method);
+		}
+		return methods;
+	}
+
+	private static AnnotationMirror getEventMethod(ExecutableElement method) {
+		for (AnnotationMirror annotation : method.getAnnotationMirrors())
+			if (((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().contentEquals(EVENT_METHOD))
+				return annotation;
+		return null;
+	}
+
+	/**
+	 * Returns the name of the {@code EventPriority} constant of the specified {@code EventMethod}.
+	 */
+	private static String getPriority(AnnotationMirror annotation) {
+		for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : annotation.getElementValues().entrySet())
+			if (entry.getKey().getSimpleName().contentEquals("priority"))
+				return ((Element) entry.getValue().getValue()).getSimpleName().toString();
+		return "NORMAL";
+	}
+
+	/**
+	 * Returns {@code true} if the specified {@code type} can be referenced by a class generated within
+	 * the specified {@code from} package.
+	 */
+	private boolean isReachable(TypeElement type, PackageElement from) {
+		boolean samePackage = processingEnv.getElementUtils().getPackageOf(type).equals(from);
+		for (Element element = type; element instanceof TypeElement; element = element.getEnclosingElement()) {
+			TypeElement enclosing = (TypeElement) element;
+			if (enclosing.getNestingKind() == NestingKind.ANONYMOUS || enclosing.getNestingKind() == NestingKind.LOCAL)
+				return false;
+			if (enclosing.getModifiers().contains(Modifier.PRIVATE))
+				return false;
+			if (!samePackage && !enclosing.getModifiers().contains(Modifier.PUBLIC))
+				return false;
+		}
+		return true;
+	}
+
+	private void generate(TypeElement type, List<ExecutableElement> methods) throws IOException {
+		PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(type);
+		String packageName = packageElement.isUnnamed() ? "" : packageElement.getQualifiedName().toString();
+		String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+		String simpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1)) + "$EventRegistration";
+		String listenerName = processingEnv.getTypeUtils().erasure(type.asType()).toString();
+
+		JavaFileObject file = processingEnv.getFiler().createSourceFile(packageName.isEmpty() ? simpleName : packageName + "." + simpleName, type);
+		try (PrintWriter writer = new PrintWriter(file.openWriter())) {
+			if (!packageName.isEmpty()) {
+				writer.println("package " + packageName + ";");
+				writer.println();
+			}
+			writer.println("@javax.annotation.processing.Generated(\"" + EventMethodProcessor.class.getName() + "\")");
+			writer.println("@SuppressWarnings({ \"rawtypes\", \"unchecked\" })");
+			writer.println("public final class " + simpleName + " implements event.EventRegistration {");
+			writer.println();
+			writer.println("\t@Override");
+			writer.println("\tpublic void register(event.EventSubscription subscription) {");
+			for (ExecutableElement method : methods) {
+				String eventName = processingEnv.getTypeUtils().erasure(method.getParameters().get(0).asType()).toString();
+				String methodName = method.getSimpleName().toString();
+				writer.println(String.format("\t\tsubscription.registerInvoker(%s.class, event.EventPriority.%s, \"%s\", (l, e) -> ((%s) l).%s((%s) e));", eventName, getPriority(getEventMethod(method)), methodName, listenerName, methodName, eventName));
+			}
+			writer.println("\t}");
+			writer.println("}");
+		}
+	}
+}
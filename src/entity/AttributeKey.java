@@ -0,0 +1,205 @@
+package entity;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The {@code AttributeKey} class identifies a typed attribute of an {@code Entity}. Every key is
+ * given a fixed slot once it is created, so its value is stored within an array of the
+ * {@code Entity} at that slot and retrieved without any lookup.
+ * 
+ * <p>
+ * An attribute holding an {@code int}, {@code long} or {@code boolean} should use an
+ * {@link IntKey}, {@link LongKey} or {@link BooleanKey}, which are stored within arrays of their
+ * primitive type so their values are never boxed.
+ * 
+ * <p>
+ * Every key should be created once and held within a constant:
+ * 
+ * <pre>
+ * private static final AttributeKey&lt;Location&gt; PREVIOUS_REGION_LOCATION = AttributeKey.create("previous_region_location");
+ * private static final AttributeKey.IntKey COMBO = AttributeKey.createInt("combo");
+ * 
+ * entity.set(PREVIOUS_REGION_LOCATION, location);
+ * int combo = entity.get(COMBO);
+ * </pre>
+ * 
+ * @author Albert Beaupre
+ * 
+ * @param <T>
+ *            The type of the attribute value
+ * 
+ * @see entity.Entity#get(AttributeKey)
+ */
+public final class AttributeKey<T> {
+
+	/*
+	 * These maps hold every key of each kind by its name, so a name only ever takes a single slot.
+	 */
+	private static final ConcurrentHashMap<String, AttributeKey<?>> NAMED = new ConcurrentHashMap<>();
+	private static final ConcurrentHashMap<String, IntKey> NAMED_INTS = new ConcurrentHashMap<>();
+	private static final ConcurrentHashMap<String, LongKey> NAMED_LONGS = new ConcurrentHashMap<>();
+	private static final ConcurrentHashMap<String, BooleanKey> NAMED_BOOLEANS = new ConcurrentHashMap<>();
+
+	/*
+	 * These values are the next slot of each kind of key, and so the amount of slots of each kind.
+	 */
+	static final AtomicInteger OBJECT_SLOTS = new AtomicInteger();
+	static final AtomicInteger INT_SLOTS = new AtomicInteger();
+	static final AtomicInteger LONG_SLOTS = new AtomicInteger();
+	static final AtomicInteger BOOLEAN_SLOTS = new AtomicInteger();
+
+	private final String name;
+	final int slot;
+
+	private AttributeKey(String name) {
+		this.name = name;
+		this.slot = OBJECT_SLOTS.getAndIncrement();
+	}
+
+	/**
+	 * Returns the {@code AttributeKey} named by the specified {@code name}, creating it if it does not
+	 * exist yet. Every call with the same {@code name} returns the same key.
+	 * 
+	 * <p>
+	 * Every key created takes a slot for as long as the server runs, so this method must only be used
+	 * to create a constant; a variable named at runtime should be set by
+	 * {@link entity.Entity#temporary(String, Object)} instead.
+	 * 
+	 * @param name
+	 *            the name of the key
+	 * @return the key of the name
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> AttributeKey<T> create(String name) {
+		AttributeKey<?> key = NAMED.get(name);
+		if (key == null)
+			key = NAMED.computeIfAbsent(name, AttributeKey::new);
+		return (AttributeKey<T>) key;
+	}
+
+	/**
+	 * Returns the {@code IntKey} named by the specified {@code name}, of which the value is 0
+	 * until it is set. Like {@link #create(String)}, every call with the same {@code name} returns
+	 * the same key.
+	 * 
+	 * @param name
+	 *            the name of the key
+	 * @return the key of the name
+	 */
+	public static IntKey createInt(String name) {
+		IntKey key = NAMED_INTS.get(name);
+		return key == null ? NAMED_INTS.computeIfAbsent(name, IntKey::new) : key;
+	}
+
+	/**
+	 * Returns the {@code LongKey} named by the specified {@code name}, of which the value is 0
+	 * until it is set. Like {@link #create(String)}, every call with the same {@code name} returns
+	 * the same key.
+	 * 
+	 * @param name
+	 *            the name of the key
+	 * @return the key of the name
+	 */
+	public static LongKey createLong(String name) {
+		LongKey key = NAMED_LONGS.get(name);
+		return key == null ? NAMED_LONGS.computeIfAbsent(name, LongKey::new) : key;
+	}
+
+	/**
+	 * Returns the {@code BooleanKey} named by the specified {@code name}, of which the value is false
+	 * until it is set. Like {@link #create(String)}, every call with the same {@code name} returns
+	 * the same key.
+	 * 
+	 * @param name
+	 *            the name of the key
+	 * @return the key of the name
+	 */
+	public static BooleanKey createBoolean(String name) {
+		BooleanKey key = NAMED_BOOLEANS.get(name);
+		return key == null ? NAMED_BOOLEANS.computeIfAbsent(name, BooleanKey::new) : key;
+	}
+
+	/**
+	 * Returns the name of this {@code AttributeKey}.
+	 * 
+	 * @return the name
+	 */
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public String toString() {
+		return "AttributeKey[" + name + "]";
+	}
+
+	/**
+	 * Identifies an {@code int} attribute of an {@code Entity}.
+	 */
+	public static final class IntKey {
+
+		private final String name;
+		final int slot;
+
+		private IntKey(String name) {
+			this.name = name;
+			this.slot = INT_SLOTS.getAndIncrement();
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		@Override
+		public String toString() {
+			return "IntKey[" + name + "]";
+		}
+	}
+
+	/**
+	 * Identifies a {@code long} attribute of an {@code Entity}.
+	 */
+	public static final class LongKey {
+
+		private final String name;
+		final int slot;
+
+		private LongKey(String name) {
+			this.name = name;
+			this.slot = LONG_SLOTS.getAndIncrement();
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		@Override
+		public String toString() {
+			return "LongKey[" + name + "]";
+		}
+	}
+
+	/**
+	 * Identifies a {@code boolean} attribute of an {@code Entity}.
+	 */
+	public static final class BooleanKey {
+
+		private final String name;
+		final int slot;
+
+		private BooleanKey(String name) {
+			this.name = name;
+			this.slot = BOOLEAN_SLOTS.getAndIncrement();
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		@Override
+		public String toString() {
+			return "BooleanKey[" + name + "]";
+		}
+	}
+}
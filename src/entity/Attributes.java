@@ -0,0 +1,116 @@
+package entity;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * The {@code Attributes} class holds the attribute values of a single {@code Entity}, within an
+ * array for each kind of {@code AttributeKey} indexed by the slot of each key. Every array is only
+ * grown once a value is set at a slot beyond it, so an {@code Entity} without any attribute of a
+ * kind takes no space for it. The temporary variables of an {@code Entity}, which are named at
+ * runtime instead of by an {@code AttributeKey}, are held within a map by their name.
+ * 
+ * @author Albert Beaupre
+ * 
+ * @see entity.AttributeKey
+ */
+final class Attributes {
+
+	private static final Object[] NO_OBJECTS = new Object[0];
+	private static final int[] NO_INTS = new int[0];
+	private static final long[] NO_LONGS = new long[0];
+
+	private Object[] objects = NO_OBJECTS;
+	private int[] ints = NO_INTS;
+	private long[] longs = NO_LONGS;
+	private long[] booleans = NO_LONGS; // Every boolean as a single bit
+	private HashMap<String, Object> temporary; // The temporary variables by name, or null if none
+
+	@SuppressWarnings("unchecked")
+	<T> T get(AttributeKey<T> key) {
+		int slot = key.slot;
+		return slot < objects.length ? (T) objects[slot] : null;
+	}
+
+	<T> void set(AttributeKey<T> key, T value) {
+		int slot = key.slot;
+		if (slot >= objects.length) {
+			if (value == null)
+				return;
+			objects = Arrays.copyOf(objects, grow(slot, AttributeKey.OBJECT_SLOTS.get()));
+		}
+		objects[slot] = value;
+	}
+
+	int get(AttributeKey.IntKey key) {
+		int slot = key.slot;
+		return slot < ints.length ? ints[slot] : 0;
+	}
+
+	void set(AttributeKey.IntKey key, int value) {
+		int slot = key.slot;
+		if (slot >= ints.length) {
+			if (value == 0)
+				return;
+			ints = Arrays.copyOf(ints, grow(slot, AttributeKey.INT_SLOTS.get()));
+		}
+		ints[slot] = value;
+	}
+
+	long get(AttributeKey.LongKey key) {
+		int slot = key.slot;
+		return slot < longs.length ? longs[slot] : 0L;
+	}
+
+	void set(AttributeKey.LongKey key, long value) {
+		int slot = key.slot;
+		if (slot >= longs.length) {
+			if (value == 0L)
+				return;
+			longs = Arrays.copyOf(longs, grow(slot, AttributeKey.LONG_SLOTS.get()));
+		}
+		longs[slot] = value;
+	}
+
+	boolean get(AttributeKey.BooleanKey key) {
+		int word = key.slot >>> 6;
+		return word < booleans.length && (booleans[word] & (1L << key.slot)) != 0;
+	}
+
+	void set(AttributeKey.BooleanKey key, boolean value) {
+		int word = key.slot >>> 6;
+		if (word >= booleans.length) {
+			if (!value)
+				return;
+			booleans = Arrays.copyOf(booleans, grow(word, (AttributeKey.BOOLEAN_SLOTS.get() + 63) >>> 6));
+		}
+		if (value)
+			booleans[word] |= 1L << key.slot;
+		else booleans[word] &= ~(1L << key.slot);
+	}
+
+	@SuppressWarnings("unchecked")
+	<T> T get(String name) {
+		return temporary == null ? null : (T) temporary.get(name);
+	}
+
+	void set(String name, Object value) {
+		if (value == null) {
+			if (temporary != null && temporary.remove(name) != null && temporary.isEmpty())
+				temporary = null; // remove any unecessary memory
+			return;
+		}
+		if (temporary == null)
+			temporary = new HashMap<>();
+		temporary.put(name, value);
+	}
+
+	/**
+	 * Returns the length an array must grow to so it holds the specified {@code slot}, which is the
+	 * specified amount of {@code slots} created of its kind so it is not grown again for any existing
+	 * key.
+	 */
+	private static int grow(int slot, int slots) {
+		return Math.max(slot + 1, slots);
+	}
+}
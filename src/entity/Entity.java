@@ -3,19 +3,22 @@ package entity;
 import entity.geometry.Locatable;
 import entity.geometry.Location;
 import entity.geometry.map.AreaChangeType;
+import event.EventManager;
 import event.impl.EntityLocationChangeEvent;
 import util.ReflectUtil;
-import util.configuration.ConfigSection;
 
 /**
  * @author Albert Beaupre
  */
 public abstract class Entity implements Locatable {
 
-	private ConfigSection temporary; // This value will be null until any
-										// temporary variables are set
+	private Attributes attributes; // This value will be null until any attribute is set
 	private Location location;
 	private int index;
+	private EntityStore store; // The store of the EntityList holding this, or null if not stored
+	EntityList<?> list; // The EntityList this was last added to, or null if never added
+	private EventManager listeningManager; // The EventManager listening on this alone, or null if none, guarded by this
+	private int eventConsumers; // The amount of consumers listening on this alone, guarded by this
 
 	/**
 	 * The {@code EntityOptions} placed on this {@code Entity}.
@@ -46,12 +49,19 @@ public abstract class Entity implements Locatable {
 	public void setLocation(Location location, AreaChangeType type) {
 		Location previousLocation = this.location;
 		this.location = location;
+		if (store != null)
+			store.update(index, location);
 		if (type == AreaChangeType.DO_NOT_DISTURB)
 			return;
-		EntityLocationChangeEvent event = new EntityLocationChangeEvent(this, type, this.location, previousLocation);
+		EntityLocationChangeEvent event = EntityLocationChangeEvent.acquire(this, type, this.location, previousLocation);
 		event.call();
-		if (location != null)
+		event.release();
+		if (location == null)
+			return;
+		if (previousLocation == null || previousLocation.map != location.map)
 			this.location.map.load(location.x, location.y);
+		else if (previousLocation.x >> 3 != location.x >> 3 || previousLocation.y >> 3 != location.y >> 3)
+			this.location.map.load(location.x, location.y, location.x - previousLocation.x, location.y - previousLocation.y); // Only once the chunk changes
 	}
 
 	/**
@@ -169,35 +179,218 @@ public abstract class Entity implements Locatable {
 		return index;
 	}
 
+	/**
+	 * Returns the {@code EntityList} this {@code Entity} was last added to, which its index relates to.
+	 * 
+	 * @return the list last added to; return null if never added to an {@code EntityList}
+	 */
+	public final EntityList<?> getList() {
+		return list;
+	}
+
+	/**
+	 * Counts a consumer registered by the specified {@code manager} to listen on this {@code Entity}
+	 * alone. This method is used <b>only</b> by an {@code EventManager}, so an {@code EntityList} only
+	 * moves the consumers of an {@code Entity} that has any.
+	 * 
+	 * @param manager
+	 *            the manager registering the consumer
+	 * @throws IllegalStateException
+	 *             if this {@code Entity} is already listened on by another {@code EventManager}
+	 */
+	public final synchronized void addEventConsumer(EventManager manager) {
+		if (listeningManager != null && listeningManager != manager)
+			throw new IllegalStateException("An Entity can only be listened on by a single EventManager");
+		listeningManager = manager;
+		eventConsumers++;
+	}
+
+	/**
+	 * Uncounts a consumer listening on this {@code Entity} alone once it has been unregistered. This
+	 * method is used <b>only</b> by an {@code EventManager}.
+	 */
+	public final synchronized void removeEventConsumer() {
+		if (eventConsumers > 0 && --eventConsumers == 0)
+			listeningManager = null;
+	}
+
+	/**
+	 * Returns the {@code EventManager} of the consumers listening on this {@code Entity} alone, or
+	 * null if there are none. This must be called while holding the lock of this {@code Entity}.
+	 */
+	final EventManager getListeningManager() {
+		return listeningManager;
+	}
+
 	/**
 	 * This method will set a temporary variable to this {@code Entity}. If the value is set to null,
 	 * then it will remove the temporary variable.
 	 * 
+	 * <p>
+	 * Every temporary variable is held by its name within a map of this {@code Entity}, apart from the
+	 * slots of every {@code AttributeKey}, so naming a variable at runtime never takes a slot. Any
+	 * variable used often should be set through a constant {@code AttributeKey} instead.
+	 * 
 	 * @param name
 	 *            the name of the variable
 	 * @param value
 	 *            the value of the variable
+	 * 
+	 * @see #set(AttributeKey, Object)
 	 */
 	public void temporary(String name, Object value) {
-		if (this.temporary == null)
-			this.temporary = new ConfigSection();
-		this.temporary.put(name, value);
-		if (value == null)
-			this.temporary.remove(name);
-
-		if (this.temporary.isEmpty())
-			this.temporary = null; // remove any unecessary memory
+		if (attributes == null) {
+			if (value == null)
+				return;
+			attributes = new Attributes();
+		}
+		attributes.set(name, value);
 	}
 
 	/**
-	 * 
+	 * Returns the temporary variable of this {@code Entity} named by the specified {@code name}, or the
+	 * specified {@code fallback} if it has not been set.
 	 * 
 	 * @param name
-	 * @return
+	 *            the name of the variable
+	 * @param fallback
+	 *            the value returned if the variable has not been set
+	 * @return the value of the variable; return the fallback if not set
+	 * 
+	 * @see #get(AttributeKey)
 	 */
-	@SuppressWarnings("unchecked")
 	public <T> T getTemporary(String name, T fallback) {
-		return this.temporary == null ? fallback : this.temporary.get(name) == null ? fallback : (T) this.temporary.get(name);
+		T value = attributes == null ? null : attributes.get(name);
+		return value == null ? fallback : value;
+	}
+
+	/**
+	 * Returns the value of the attribute of this {@code Entity} identified by the specified
+	 * {@code key}.
+	 * 
+	 * @param key
+	 *            the key of the attribute
+	 * @return the value of the attribute; return null if not set
+	 */
+	public final <T> T get(AttributeKey<T> key) {
+		return attributes == null ? null : attributes.get(key);
+	}
+
+	/**
+	 * Sets the value of the attribute of this {@code Entity} identified by the specified {@code key}.
+	 * 
+	 * @param key
+	 *            the key of the attribute
+	 * @param value
+	 *            the value to set, or null to remove the attribute
+	 */
+	public final <T> void set(AttributeKey<T> key, T value) {
+		if (attributes == null) {
+			if (value == null)
+				return;
+			attributes = new Attributes();
+		}
+		attributes.set(key, value);
+	}
+
+	/**
+	 * Returns the value of the {@code int} attribute of this {@code Entity} identified by the
+	 * specified {@code key}.
+	 * 
+	 * @param key
+	 *            the key of the attribute
+	 * @return the value of the attribute; return 0 if not set
+	 */
+	public final int get(AttributeKey.IntKey key) {
+		return attributes == null ? 0 : attributes.get(key);
+	}
+
+	/**
+	 * Sets the value of the {@code int} attribute of this {@code Entity} identified by the specified
+	 * {@code key}.
+	 * 
+	 * @param key
+	 *            the key of the attribute
+	 * @param value
+	 *            the value to set
+	 */
+	public final void set(AttributeKey.IntKey key, int value) {
+		if (attributes == null) {
+			if (value == 0)
+				return;
+			attributes = new Attributes();
+		}
+		attributes.set(key, value);
+	}
+
+	/**
+	 * Returns the value of the {@code long} attribute of this {@code Entity} identified by the
+	 * specified {@code key}.
+	 * 
+	 * @param key
+	 *            the key of the attribute
+	 * @return the value of the attribute; return 0 if not set
+	 */
+	public final long get(AttributeKey.LongKey key) {
+		return attributes == null ? 0L : attributes.get(key);
+	}
+
+	/**
+	 * Sets the value of the {@code long} attribute of this {@code Entity} identified by the specified
+	 * {@code key}.
+	 * 
+	 * @param key
+	 *            the key of the attribute
+	 * @param value
+	 *            the value to set
+	 */
+	public final void set(AttributeKey.LongKey key, long value) {
+		if (attributes == null) {
+			if (value == 0L)
+				return;
+			attributes = new Attributes();
+		}
+		attributes.set(key, value);
+	}
+
+	/**
+	 * Returns the value of the {@code boolean} attribute of this {@code Entity} identified by the
+	 * specified {@code key}.
+	 * 
+	 * @param key
+	 *            the key of the attribute
+	 * @return the value of the attribute; return false if not set
+	 */
+	public final boolean get(AttributeKey.BooleanKey key) {
+		return attributes != null && attributes.get(key);
+	}
+
+	/**
+	 * Sets the value of the {@code boolean} attribute of this {@code Entity} identified by the
+	 * specified {@code key}.
+	 * 
+	 * @param key
+	 *            the key of the attribute
+	 * @param value
+	 *            the value to set
+	 */
+	public final void set(AttributeKey.BooleanKey key, boolean value) {
+		if (attributes == null) {
+			if (!value)
+				return;
+			attributes = new Attributes();
+		}
+		attributes.set(key, value);
+	}
+
+	/**
+	 * Attaches this {@code Entity} to the specified {@code store} of the {@code EntityList} it has
+	 * been added to, storing its state within it.
+	 */
+	final void attach(EntityStore store) {
+		this.store = store;
+		if (store != null)
+			store.put(this);
 	}
 
 	/**
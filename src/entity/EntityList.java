@@ -3,12 +3,29 @@ package entity;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+import event.EventManager;
 
 /**
  * The {@code EntityList} class holds an array of {@code Entity} types. The {@code EntityList} class
  * works similarly to the {@link java.util.ArrayList} class except with specific {@code Entity}
  * functions.
  * 
+ * <p>
+ * Every free index is held within a min-heap, so adding an {@code Entity} takes the lowest free
+ * index without searching for it. An index can be kept from being reused for a delay after its
+ * {@code Entity} has been removed, so a client cannot mistake a new {@code Entity} for the one
+ * removed from the same index. Every occupied index is also held within a dense array, so iterating
+ * an {@code EntityList} only visits the entities it contains, instead of every index of it.
+ * 
+ * <p>
+ * Adding an {@code Entity} listened on by an {@code EventManager}, through
+ * {@link event.EventManager#registerEntityEvent(Entity, Class, Consumer)}, moves its consumers to
+ * its new list and index. Any other {@code Entity} is added without touching an
+ * {@code EventManager}.
+ * 
  * @author Albert Beaupre
  * 
  * @param <E>
@@ -19,6 +36,22 @@ public class EntityList<E extends Entity> implements Iterable<E> {
 	private Entity[] data;
 	private int size;
 
+	private final int[] free; // The min-heap of free indices, with the lowest index first
+	private int freeSize;
+
+	private final int[] active; // The occupied indices, of which the first size are used
+	private final int[] positions; // The position of each occupied index within the active array
+	private int iterating; // The amount of forEach calls in progress, during which removals are deferred
+	private int[] deferred; // The indices removed while iterating, still within the active array
+	private int deferredSize;
+
+	private final long reuseDelay; // The milliseconds before a removed index is reused
+	private final int[] pending; // The queue of removed indices waiting for the reuse delay
+	private final long[] releasedAt; // The time each pending index was removed
+	private int pendingHead, pendingSize;
+
+	private EntityStore store; // The state of every entity, or null if not enabled
+
 	/**
 	 * Constructs a new {@code EntityList} with a specified {@code initialCapacity}.
 	 * 
@@ -26,14 +59,129 @@ public class EntityList<E extends Entity> implements Iterable<E> {
 	 *            the starting capacity of the data array in this {@code EntityList}
 	 */
 	public EntityList(int initialCapacity) {
+		this(initialCapacity, 0);
+	}
+
+	/**
+	 * Constructs a new {@code EntityList} with a specified {@code initialCapacity}, in which the index
+	 * of a removed {@code Entity} is not reused until the specified {@code reuseDelay} has passed.
+	 * 
+	 * @param initalCapacity
+	 *            the starting capacity of the data array in this {@code EntityList}
+	 * @param reuseDelay
+	 *            the milliseconds before a removed index is reused, or 0 to reuse it immediately
+	 */
+	public EntityList(int initialCapacity, long reuseDelay) {
 		this.data = new Entity[initialCapacity];
+		this.free = new int[initialCapacity];
+		this.active = new int[initialCapacity];
+		this.positions = new int[initialCapacity];
+		this.reuseDelay = reuseDelay;
+		this.pending = reuseDelay > 0 ? new int[initialCapacity] : null;
+		this.releasedAt = reuseDelay > 0 ? new long[initialCapacity] : null;
+		resetIndices();
 	}
 
-	private int openIndex() {
+	/**
+	 * Places every index except 0 within the free heap, in ascending order.
+	 */
+	private void resetIndices() {
+		freeSize = 0;
 		for (int i = 1; i < data.length; i++)
-			if (data[i] == null)
-				return i;
-		return -1;
+			free[freeSize++] = i;
+		pendingHead = pendingSize = 0;
+	}
+
+	/**
+	 * Takes the lowest free index out of the free heap, or returns -1 if there is none.
+	 */
+	private int openIndex() {
+		if (pendingSize > 0)
+			releasePending();
+		if (freeSize == 0)
+			return -1;
+		int lowest = free[0];
+		int index = free[--freeSize];
+		int position = 0;
+		while (true) {
+			int child = (position << 1) + 1;
+			if (child >= freeSize)
+				break;
+			if (child + 1 < freeSize && free[child + 1] < free[child])
+				child++;
+			if (free[child] >= index)
+				break;
+			free[position] = free[child];
+			position = child;
+		}
+		free[position] = index;
+		return lowest;
+	}
+
+	/**
+	 * Places the specified {@code index} within the free heap.
+	 */
+	private void pushFree(int index) {
+		int position = freeSize++;
+		while (position > 0) {
+			int parent = (position - 1) >> 1;
+			if (free[parent] <= index)
+				break;
+			free[position] = free[parent];
+			position = parent;
+		}
+		free[position] = index;
+	}
+
+	/**
+	 * Moves every pending index whose reuse delay has passed into the free heap.
+	 */
+	private void releasePending() {
+		long now = System.currentTimeMillis();
+		while (pendingSize > 0 && now - releasedAt[pendingHead] >= reuseDelay) {
+			pushFree(pending[pendingHead]);
+			pendingHead = (pendingHead + 1) % pending.length;
+			pendingSize--;
+		}
+	}
+
+	/**
+	 * Clears the specified occupied {@code index}, removing it from the active array and freeing it
+	 * once the reuse delay has passed. While a {@code forEach} is in progress, the index is only
+	 * removed from the active array and freed once every {@code forEach} has finished.
+	 */
+	private void release(int index) {
+		if (store != null) {
+			data[index].attach(null);
+			store.remove(index);
+		}
+		data[index] = null;
+		if (iterating > 0) {
+			if (deferred == null)
+				deferred = new int[data.length];
+			deferred[deferredSize++] = index;
+			return;
+		}
+		unlink(index);
+	}
+
+	/**
+	 * Removes the specified cleared {@code index} from the active array and frees it once the reuse
+	 * delay has passed.
+	 */
+	private void unlink(int index) {
+		int position = positions[index];
+		int last = active[--size];
+		active[position] = last;
+		positions[last] = position;
+
+		if (pending == null) {
+			pushFree(index);
+		} else {
+			int tail = (pendingHead + pendingSize++) % pending.length;
+			pending[tail] = index;
+			releasedAt[tail] = System.currentTimeMillis();
+		}
 	}
 
 	/**
@@ -51,8 +199,19 @@ public class EntityList<E extends Entity> implements Iterable<E> {
 		int index = openIndex();
 		if (index != -1) {
 			data[index] = entity;
-			entity.setIndex(index);
-			size++;
+			synchronized (entity) { // Keeps any consumer from being registered at the previous place meanwhile
+				EntityList<?> previousList = entity.list;
+				int previous = entity.getIndex();
+				entity.setIndex(index);
+				entity.list = this;
+				EventManager manager = entity.getListeningManager();
+				if (manager != null && (previousList != this || previous != index))
+					manager.moveEntityEvents(entity, previousList, previous);
+			}
+			positions[index] = size;
+			active[size++] = index;
+			if (store != null)
+				entity.attach(store);
 			return true;
 		}
 		return false;
@@ -68,11 +227,10 @@ public class EntityList<E extends Entity> implements Iterable<E> {
 	 */
 	public boolean remove(E entity) {
 		int index = entity.getIndex();
-		if (index < 0)
+		if (index < 0 || index >= data.length)
 			return false;
 		if (data[index] == entity) {
-			data[index] = null;
-			size--;
+			release(index);
 			return true;
 		}
 		return false;
@@ -88,10 +246,9 @@ public class EntityList<E extends Entity> implements Iterable<E> {
 	 * @see #remove(Entity)
 	 */
 	public boolean remove(int index) {
-		if (index < 0 || data[index] == null)
+		if (index < 0 || index >= data.length || data[index] == null)
 			return false;
-		data[index] = null;
-		size--;
+		release(index);
 		return true;
 	}
 
@@ -104,6 +261,8 @@ public class EntityList<E extends Entity> implements Iterable<E> {
 	 */
 	@SuppressWarnings("unchecked")
 	public E get(int index) {
+		if (index < 0 || index >= data.length)
+			return null;
 		return (E) data[index];
 	}
 
@@ -111,9 +270,19 @@ public class EntityList<E extends Entity> implements Iterable<E> {
 	 * Clears this {@code EntityList} of every contained {@code Entity}.
 	 */
 	public void clear() {
+		for (int i = 0; i < size; i++) {
+			Entity entity = data[active[i]];
+			if (entity == null)
+				continue; // Removed by a forEach in progress
+			if (store != null) {
+				entity.attach(null);
+				store.remove(active[i]);
+			}
+		}
 		int length = data.length;
 		data = new Entity[length];
-		size = 0;
+		size = deferredSize = 0;
+		resetIndices();
 	}
 
 	/**
@@ -122,7 +291,7 @@ public class EntityList<E extends Entity> implements Iterable<E> {
 	 * @return the amount of entities
 	 */
 	public int size() {
-		return size;
+		return size - deferredSize;
 	}
 
 	/**
@@ -131,7 +300,7 @@ public class EntityList<E extends Entity> implements Iterable<E> {
 	 * @return true if empty; return false otherwise
 	 */
 	public boolean isEmpty() {
-		return size == 0;
+		return size == deferredSize;
 	}
 
 	/**
@@ -153,27 +322,97 @@ public class EntityList<E extends Entity> implements Iterable<E> {
 	}
 
 	/**
-	 * Creates a new {@code Iterator} for this {@code EntityList}.
+	 * Enables an {@code EntityStore} on this {@code EntityList}, holding the state of every
+	 * {@code Entity} within it, and returns it. If already enabled, the existing store is returned.
+	 * 
+	 * @return the store of this list
+	 * 
+	 * @see entity.EntityStore
+	 */
+	public EntityStore enableStore() {
+		if (store == null) {
+			store = new EntityStore(data.length);
+			for (int i = 0; i < size; i++)
+				if (data[active[i]] != null)
+					data[active[i]].attach(store);
+		}
+		return store;
+	}
+
+	/**
+	 * Returns the {@code EntityStore} of this {@code EntityList}.
+	 * 
+	 * @return the store; return null if not enabled
+	 */
+	public EntityStore getStore() {
+		return store;
+	}
+
+	/**
+	 * Performs the specified {@code action} for every {@code Entity} within this {@code EntityList},
+	 * without allocating an {@code Iterator}. The {@code action} can remove any {@code Entity} from this
+	 * {@code EntityList}, which is then no longer visited; any {@code Entity} added by it is not
+	 * visited. Every {@code Entity} is visited at most once, as the entities removed are only taken out
+	 * of the active array once every {@code forEach} in progress has finished.
+	 * 
+	 * @param action
+	 *            the action to perform
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public void forEach(Consumer<? super E> action) {
+		int end = size;
+		iterating++;
+		try {
+			for (int i = 0; i < end; i++) {
+				Entity entity = data[active[i]];
+				if (entity != null)
+					action.accept((E) entity);
+			}
+		} finally {
+			if (--iterating == 0 && deferredSize > 0) {
+				for (int i = 0; i < deferredSize; i++)
+					if (data[deferred[i]] == null)
+						unlink(deferred[i]);
+				deferredSize = 0;
+			}
+		}
+	}
+
+	/**
+	 * Creates a new {@code Iterator} for this {@code EntityList} over a snapshot of the entities it
+	 * contains, so removing or adding any {@code Entity} while iterating never makes it visit an
+	 * {@code Entity} twice or skip one. An {@code Entity} removed after the snapshot was taken is not
+	 * visited. The {@code Entity} last returned can be removed while iterating.
 	 */
 	public Iterator<E> iterator() {
+		Entity[] snapshot = toArray();
 		return new Iterator<E>() {
-			private int index;
+			private int position; // The position within the snapshot of the next entity
+			private Entity last; // The entity last returned
 
 			@Override
 			public boolean hasNext() {
-				return index < data.length;
+				while (position < snapshot.length && !contains(snapshot[position]))
+					position++;
+				return position < snapshot.length;
 			}
 
 			@SuppressWarnings("unchecked")
 			@Override
 			public E next() {
-				return (E) data[index++];
+				if (!hasNext())
+					throw new NoSuchElementException();
+				return (E) (last = snapshot[position++]);
 			}
 
 			@SuppressWarnings("unchecked")
 			@Override
 			public void remove() {
-				EntityList.this.remove((E) data[index]);
+				if (last == null)
+					throw new IllegalStateException();
+				EntityList.this.remove((E) last);
+				last = null;
 			}
 		};
 	}
@@ -184,18 +423,20 @@ public class EntityList<E extends Entity> implements Iterable<E> {
 	 * @return a copy of the data
 	 */
 	public Entity[] toArray() {
-		Entity[] entities = new Entity[size];
-		for (int i = 0; i < entities.length; i++)
-			entities[i] = data[i + 1];
+		Entity[] entities = new Entity[size()];
+		int count = 0;
+		for (int i = 0; i < size; i++)
+			if (data[active[i]] != null)
+				entities[count++] = data[active[i]];
 		return entities;
 	}
 
 	@SuppressWarnings("unchecked")
 	public List<E> toList() {
-		ArrayList<E> list = new ArrayList<>(data.length);
-		for (Entity e : data)
-			if (e != null)
-				list.add((E) e);
+		ArrayList<E> list = new ArrayList<>(size());
+		for (int i = 0; i < size; i++)
+			if (data[active[i]] != null)
+				list.add((E) data[active[i]]);
 		return list;
 	}
 
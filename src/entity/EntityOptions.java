@@ -40,9 +40,11 @@ public class EntityOptions {
 		if (target == null)
 			throw new NullPointerException("The Entity target selected for the entityOption cannot be null");
 
-		EntitySelectOptionEvent event = new EntitySelectOptionEvent(entity, target, entityOptions[index]);
+		EntitySelectOptionEvent event = EntitySelectOptionEvent.acquire(entity, target, entityOptions[index]);
 		event.call();
-		if (event.isCancelled())
+		boolean cancelled = event.isCancelled();
+		event.release();
+		if (cancelled)
 			return;
 
 		entityOptions[index].select(entity, target);
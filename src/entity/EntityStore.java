@@ -0,0 +1,289 @@
+package entity;
+
+import entity.geometry.Location;
+
+/**
+ * The {@code EntityStore} class holds the state of every {@code Entity} within an
+ * {@code EntityList} as parallel primitive arrays indexed by {@link Entity#getIndex()}, so a pass
+ * over every entity reads contiguous arrays instead of following the reference of every
+ * {@code Entity} and its {@code Location}.
+ * 
+ * <p>
+ * An {@code EntityStore} is enabled on an {@code EntityList} by {@link EntityList#enableStore()}.
+ * The state of an {@code Entity} is stored once it is added to the list, and updated every time
+ * its location is set. The query methods of this class write the index of every matching
+ * {@code Entity} to a given array, which should be kept and reused by the caller.
+ * 
+ * <p>
+ * An {@code EntityStore} is not thread safe; it should only be modified and queried by the thread
+ * modifying its {@code EntityList}.
+ * 
+ * <p>
+ * <b>Example: This will find the index of every NPC within 15 tiles of a persona</b>
+ * 
+ * <pre>
+ * EntityStore store = map.getNPCS().getStore();
+ * int[] result = new int[store.capacity()];
+ * int found = store.findWithin(location.z, location.x, location.y, 15, result);
+ * for (int i = 0; i &lt; found; i++) {
+ * 	NPC npc = map.getNPCS().get(result[i]);
+ * }
+ * </pre>
+ * 
+ * @author Albert Beaupre
+ * 
+ * @see entity.EntityList#enableStore()
+ */
+public final class EntityStore {
+
+	/**
+	 * The flag of an index that is occupied by an {@code Entity}.
+	 */
+	public static final int FLAG_ACTIVE = 0x1;
+
+	/**
+	 * The flag of an {@code Entity} that has a {@code Location}. Every query only matches entities
+	 * with this flag.
+	 */
+	public static final int FLAG_LOCATED = 0x2;
+
+	/**
+	 * The lowest flag that can be set by {@link #setFlag(int, int, boolean)}; every flag below it is
+	 * reserved by the {@code EntityStore}.
+	 */
+	public static final int FLAG_CUSTOM = 0x100;
+
+	private final int[] x, y;
+	private final byte[] z;
+	private final byte[] sizeX, sizeY;
+	private final int[] flags;
+	private final int[] region; // The region id of each location, (x >> 6) << 8 | (y >> 6)
+	private int limit; // One past the highest index ever stored
+
+	/**
+	 * Constructs a new {@code EntityStore} holding the specified {@code capacity} of indices.
+	 * 
+	 * @param capacity
+	 *            the amount of indices
+	 */
+	EntityStore(int capacity) {
+		this.x = new int[capacity];
+		this.y = new int[capacity];
+		this.z = new byte[capacity];
+		this.sizeX = new byte[capacity];
+		this.sizeY = new byte[capacity];
+		this.flags = new int[capacity];
+		this.region = new int[capacity];
+	}
+
+	/**
+	 * Stores the state of the specified {@code entity} at its index.
+	 */
+	void put(Entity entity) {
+		int index = entity.getIndex();
+		flags[index] = FLAG_ACTIVE;
+		sizeX[index] = (byte) entity.sizeX();
+		sizeY[index] = (byte) entity.sizeY();
+		update(index, entity.getLocation());
+		if (index >= limit)
+			limit = index + 1;
+	}
+
+	/**
+	 * Clears the state stored at the specified {@code index}.
+	 */
+	void remove(int index) {
+		flags[index] = 0;
+	}
+
+	/**
+	 * Updates the location stored at the specified {@code index}.
+	 */
+	void update(int index, Location location) {
+		if (location == null) {
+			flags[index] &= ~FLAG_LOCATED;
+			return;
+		}
+		x[index] = location.x;
+		y[index] = location.y;
+		z[index] = (byte) location.z;
+		region[index] = (location.x >> 6) << 8 | (location.y >> 6);
+		flags[index] |= FLAG_LOCATED;
+	}
+
+	/**
+	 * Sets or clears the specified custom {@code flag} of the {@code Entity} at the specified
+	 * {@code index}.
+	 * 
+	 * @param index
+	 *            the index of the entity
+	 * @param flag
+	 *            the flag, which must be {@link #FLAG_CUSTOM} or higher
+	 * @param value
+	 *            true to set the flag; false to clear it
+	 * @throws IllegalArgumentException
+	 *             if the flag is reserved
+	 */
+	public void setFlag(int index, int flag, boolean value) {
+		if ((flag & (FLAG_CUSTOM - 1)) != 0)
+			throw new IllegalArgumentException("The flag " + flag + " is reserved by the EntityStore");
+		if ((flags[index] & FLAG_ACTIVE) == 0)
+			return;
+		if (value)
+			flags[index] |= flag;
+		else flags[index] &= ~flag;
+	}
+
+	public int getX(int index) {
+		return x[index];
+	}
+
+	public int getY(int index) {
+		return y[index];
+	}
+
+	public int getZ(int index) {
+		return z[index];
+	}
+
+	public int getSizeX(int index) {
+		return sizeX[index];
+	}
+
+	public int getSizeY(int index) {
+		return sizeY[index];
+	}
+
+	public int getFlags(int index) {
+		return flags[index];
+	}
+
+	public int getRegion(int index) {
+		return region[index];
+	}
+
+	/**
+	 * Returns the amount of indices this {@code EntityStore} holds.
+	 * 
+	 * @return the capacity
+	 */
+	public int capacity() {
+		return flags.length;
+	}
+
+	/**
+	 * Writes the index of every located {@code Entity} on the specified {@code plane} within the
+	 * specified inclusive bounds to the specified {@code result}, and returns the amount written.
+	 * 
+	 * @param plane
+	 *            the plane of the bounds
+	 * @param minX
+	 *            the lowest x coordinate
+	 * @param minY
+	 *            the lowest y coordinate
+	 * @param maxX
+	 *            the highest x coordinate
+	 * @param maxY
+	 *            the highest y coordinate
+	 * @param result
+	 *            the array to write every index to
+	 * @return the amount of indices written, up to the length of the result
+	 */
+	public int findWithin(int plane, int minX, int minY, int maxX, int maxY, int[] result) {
+		int found = 0;
+		for (int i = 0; i < limit && found < result.length; i++) {
+			if ((flags[i] & FLAG_LOCATED) == 0 || z[i] != plane)
+				continue;
+			int tileX = x[i], tileY = y[i];
+			if (tileX >= minX && tileX <= maxX && tileY >= minY && tileY <= maxY)
+				result[found++] = i;
+		}
+		return found;
+	}
+
+	/**
+	 * Writes the index of every located {@code Entity} on the specified {@code plane} within the
+	 * specified {@code distance} of the specified coordinates, on either axis, to the specified
+	 * {@code result}, and returns the amount written.
+	 * 
+	 * @param plane
+	 *            the plane of the coordinates
+	 * @param centerX
+	 *            the x coordinate
+	 * @param centerY
+	 *            the y coordinate
+	 * @param distance
+	 *            the highest distance on either axis
+	 * @param result
+	 *            the array to write every index to
+	 * @return the amount of indices written, up to the length of the result
+	 */
+	public int findWithin(int plane, int centerX, int centerY, int distance, int[] result) {
+		return findWithin(plane, centerX - distance, centerY - distance, centerX + distance, centerY + distance, result);
+	}
+
+	/**
+	 * Writes the index of every located {@code Entity} within the specified {@code regionId} to the
+	 * specified {@code result}, and returns the amount written.
+	 * 
+	 * @param regionId
+	 *            the id of the region
+	 * @param result
+	 *            the array to write every index to
+	 * @return the amount of indices written, up to the length of the result
+	 */
+	public int findInRegion(int regionId, int[] result) {
+		int found = 0;
+		for (int i = 0; i < limit && found < result.length; i++)
+			if ((flags[i] & FLAG_LOCATED) != 0 && region[i] == regionId)
+				result[found++] = i;
+		return found;
+	}
+
+	/**
+	 * Writes the index of every located {@code Entity} with every flag of the specified {@code mask}
+	 * to the specified {@code result}, and returns the amount written.
+	 * 
+	 * @param mask
+	 *            the flags to match
+	 * @param result
+	 *            the array to write every index to
+	 * @return the amount of indices written, up to the length of the result
+	 */
+	public int findWithFlags(int mask, int[] result) {
+		mask |= FLAG_LOCATED;
+		int found = 0;
+		for (int i = 0; i < limit && found < result.length; i++)
+			if ((flags[i] & mask) == mask)
+				result[found++] = i;
+		return found;
+	}
+
+	/**
+	 * Returns the amount of located entities on the specified {@code plane} within the specified
+	 * inclusive bounds.
+	 * 
+	 * @param plane
+	 *            the plane of the bounds
+	 * @param minX
+	 *            the lowest x coordinate
+	 * @param minY
+	 *            the lowest y coordinate
+	 * @param maxX
+	 *            the highest x coordinate
+	 * @param maxY
+	 *            the highest y coordinate
+	 * @return the amount of entities
+	 */
+	public int countWithin(int plane, int minX, int minY, int maxX, int maxY) {
+		int count = 0;
+		for (int i = 0; i < limit; i++) {
+			if ((flags[i] & FLAG_LOCATED) == 0 || z[i] != plane)
+				continue;
+			int tileX = x[i], tileY = y[i];
+			if (tileX >= minX && tileX <= maxX && tileY >= minY && tileY <= maxY)
+				count++;
+		}
+		return count;
+	}
+}
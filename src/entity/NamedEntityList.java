@@ -0,0 +1,115 @@
+package entity;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import util.StringUtil;
+
+/**
+ * The {@code NamedEntityList} class is an {@code EntityList} that also indexes every {@code Entity}
+ * it contains by its name, so an {@code Entity} can be found by name without iterating the list.
+ * 
+ * <p>
+ * Every name is indexed by its base-37 encoding, so names differing only in case, or in spaces and
+ * underscores, are equal. No two entities of the same name can be contained at once. The name index
+ * can be read by any thread, while the list itself is modified in the same way as any
+ * {@code EntityList}.
+ * 
+ * @author Albert Beaupre
+ * 
+ * @param <E>
+ *            The {@code Entity} type
+ * 
+ * @see util.StringUtil#encodeBase37(String)
+ */
+public class NamedEntityList<E extends Entity> extends EntityList<E> {
+
+	private final ConcurrentHashMap<Long, E> names = new ConcurrentHashMap<>();
+
+	/**
+	 * Constructs a new {@code NamedEntityList} with a specified {@code initialCapacity}.
+	 * 
+	 * @param initalCapacity
+	 *            the starting capacity of the data array in this {@code NamedEntityList}
+	 */
+	public NamedEntityList(int initialCapacity) {
+		super(initialCapacity);
+	}
+
+	/**
+	 * Constructs a new {@code NamedEntityList} with a specified {@code initialCapacity}, in which the
+	 * index of a removed {@code Entity} is not reused until the specified {@code reuseDelay} has passed.
+	 * 
+	 * @param initalCapacity
+	 *            the starting capacity of the data array in this {@code NamedEntityList}
+	 * @param reuseDelay
+	 *            the milliseconds before a removed index is reused, or 0 to reuse it immediately
+	 */
+	public NamedEntityList(int initialCapacity, long reuseDelay) {
+		super(initialCapacity, reuseDelay);
+	}
+
+	/**
+	 * Adds the specified {@code Entity} to this {@code NamedEntityList} if no {@code Entity} of the
+	 * same name is contained.
+	 * 
+	 * @param entity
+	 *            the {@code Entity} type to add
+	 * @return true if the {@code Entity} was added; return false otherwise
+	 */
+	@Override
+	public boolean add(E entity) {
+		Long name = StringUtil.encodeBase37(entity.getName());
+		if (names.putIfAbsent(name, entity) != null)
+			return false;
+		if (super.add(entity))
+			return true;
+		names.remove(name, entity);
+		return false;
+	}
+
+	@Override
+	public boolean remove(E entity) {
+		if (!super.remove(entity))
+			return false;
+		names.remove(StringUtil.encodeBase37(entity.getName()), entity);
+		return true;
+	}
+
+	@Override
+	public boolean remove(int index) {
+		E entity = get(index);
+		if (entity == null || !super.remove(index))
+			return false;
+		names.remove(StringUtil.encodeBase37(entity.getName()), entity);
+		return true;
+	}
+
+	@Override
+	public void clear() {
+		super.clear();
+		names.clear();
+	}
+
+	/**
+	 * Returns the {@code Entity} within this {@code NamedEntityList} with the specified {@code name}.
+	 * 
+	 * @param name
+	 *            the name of the {@code Entity}
+	 * @return the {@code Entity} with the name; return null if non-existent
+	 */
+	public E get(String name) {
+		return names.get(StringUtil.encodeBase37(name));
+	}
+
+	/**
+	 * Returns {@code true} if an {@code Entity} with the specified {@code name} is within this
+	 * {@code NamedEntityList}.
+	 * 
+	 * @param name
+	 *            the name of the {@code Entity}
+	 * @return true if contained; return false otherwise
+	 */
+	public boolean contains(String name) {
+		return names.containsKey(StringUtil.encodeBase37(name));
+	}
+}
@@ -0,0 +1,98 @@
+package entity.actor;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import infrastructure.Tick;
+
+/**
+ * The {@code ActionProcessor} class cycles the current {@code Action} of every active
+ * {@code ActionQueue} once per game cycle, in a single pass over a dense array of the active
+ * queues.
+ *
+ * <p>
+ * An {@code ActionQueue} is activated once an {@code Action} is queued to it, and is removed from
+ * this {@code ActionProcessor} on the first cycle it has no {@code Action} left to cycle. The
+ * active queues keep the order they were activated in, so every {@code Actor} is cycled in the same
+ * order each cycle.
+ *
+ * <p>
+ * An {@code ActionProcessor} is either queued as a {@code Tick} executing every
+ * {@link infrastructure.threads.GameCycleThread#CYCLE_PERIOD}, or executed by the
+ * {@link infrastructure.threads.CyclePhase#LOGIC} phase of a {@code GameCycleThread}.
+ *
+ * <p>
+ * An {@code ActionQueue} can be activated from any thread; it is added to the active queues at the
+ * start of the next cycle, so its first {@code Action} is cycled by the same thread, in the same
+ * pass, as every other active queue. An {@code Action} is never cycled by two threads at once.
+ *
+ * @author Albert Beaupre
+ *
+ * @see entity.actor.ActionQueue
+ */
+public final class ActionProcessor extends Tick {
+
+	private final ConcurrentLinkedQueue<ActionQueue<?>> activated = new ConcurrentLinkedQueue<>(); // Waiting for their first cycle
+	private ActionQueue<?>[] active = new ActionQueue<?>[256];
+	private int size;
+
+	/**
+	 * Activates the specified {@code ActionQueue} so its actions are cycled by this
+	 * {@code ActionProcessor}. This method is called by an {@code ActionQueue} when an {@code Action}
+	 * is queued to it and it is not already active.
+	 *
+	 * @param queue
+	 *            the queue to activate
+	 */
+	void activate(ActionQueue<?> queue) {
+		activated.add(queue);
+	}
+
+	/**
+	 * Returns the amount of {@code ActionQueue} objects being cycled by this {@code ActionProcessor}.
+	 *
+	 * @return the amount of active queues
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Cycles the current {@code Action} of every active {@code ActionQueue} and removes any queue that
+	 * has no {@code Action} left to cycle. Every queue activated since the last pass is added to the
+	 * active queues first; a queue activated during this pass is cycled from the next pass on.
+	 */
+	@Override
+	public void tick() {
+		ActionQueue<?> queue;
+		while ((queue = activated.poll()) != null) {
+			if (size == active.length)
+				active = Arrays.copyOf(active, size << 1);
+			active[size++] = queue;
+		}
+
+		int write = 0;
+		for (int read = 0; read < size; read++) {
+			queue = active[read];
+			active[read] = null;
+			if (cycle(queue))
+				active[write++] = queue;
+		}
+		size = write;
+	}
+
+	/**
+	 * Cycles the current {@code Action} of the specified {@code queue}, returning true if the queue
+	 * is still active afterwards.
+	 */
+	private static boolean cycle(ActionQueue<?> queue) {
+		boolean running;
+		try {
+			running = queue.process();
+		} catch (Exception e) {
+			e.printStackTrace();
+			running = queue.hasAction();
+		}
+		return running || !queue.deactivate();
+	}
+}
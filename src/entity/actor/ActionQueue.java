@@ -1,13 +1,16 @@
 package entity.actor;
 
-import infrastructure.Tick;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import infrastructure.GlobalVariables;
 
 /**
  * Represents a type of 'Queue' for queuing {@code Action} types so they may be
- * cycled. {@code ActionQueue} extends the {@link infrastructure.Tick} class so
- * it may cycle through actions continuously until all actions are gone and it
- * will stop itself from cycling anymore until another {@code Action} has been
- * queued.
+ * cycled. An {@code ActionQueue} is activated within the
+ * {@link entity.actor.ActionProcessor} once an {@code Action} is queued, so it
+ * is cycled once every game cycle, starting with the next one, until all
+ * actions are gone and it will stop cycling anymore until another
+ * {@code Action} has been queued.
  * 
  * @author Albert Beaupre
  * 
@@ -16,11 +19,13 @@ import infrastructure.Tick;
  * 
  * @see entity.actor.Action
  * @see entity.actor.Actor
+ * @see entity.actor.ActionProcessor
  */
-public final class ActionQueue<A extends Actor> extends Tick {
+public final class ActionQueue<A extends Actor> {
 
-	private Action<A> currentAction; // The queue of actions that will be cycled
+	private volatile Action<A> currentAction; // The queue of actions that will be cycled
 	private boolean hasUncancellable;
+	private final AtomicBoolean active = new AtomicBoolean(); // The flag that checks if this queue is within the ActionProcessor
 
 	/**
 	 * Constructs a new {@code ActionQueue}
@@ -47,8 +52,8 @@ public final class ActionQueue<A extends Actor> extends Tick {
 		} else {
 			this.currentAction = action;
 		}
-		if (!this.isQueued())
-			this.queue();
+		if (active.compareAndSet(false, true))
+			GlobalVariables.getActionProcessor().activate(this);
 	}
 
 	/**
@@ -90,7 +95,8 @@ public final class ActionQueue<A extends Actor> extends Tick {
 	}
 
 	/**
-	 * This method only runs when there are actions queued.
+	 * This method only runs when there are actions queued, and is called by
+	 * the {@code ActionProcessor} once every game cycle.
 	 * 
 	 * <p>
 	 * This method executes any actions in its queue in the order that each
@@ -100,24 +106,46 @@ public final class ActionQueue<A extends Actor> extends Tick {
 	 * returns false, then the next entity.actor.action in the queue <b>will
 	 * not</b> execute until the current entity.actor.action is completely
 	 * stopped.
+	 * 
+	 * @return true if there is still an {@code Action} to cycle; return false
+	 *         otherwise
 	 */
-	public final void tick() {
-		if (this.currentAction == null) {
-			this.cancel();
-			return;
-		}
+	boolean process() {
+		Action<A> c = this.currentAction;
+		if (c == null)
+			return false;
 
-		if (!currentAction.cancellable())
+		if (!c.cancellable())
 			this.hasUncancellable = true;
-		Action<A> c = this.currentAction;
-		if (!currentAction.cycle(currentAction.getState())) {
+		if (!c.cycle(c.getState())) {
 			if (c == this.currentAction) {
 				this.currentAction = null;
-				queue();
-				return;
+				return false;
 			}
 		}
-		this.queue(600);
+		return this.currentAction != null;
+	}
+
+	/**
+	 * Returns true if this {@code ActionQueue} has an {@code Action} to cycle.
+	 * 
+	 * @return true if there is an action; return false otherwise
+	 */
+	public boolean hasAction() {
+		return this.currentAction != null;
+	}
+
+	/**
+	 * Marks this {@code ActionQueue} as no longer being within the
+	 * {@code ActionProcessor}. If an {@code Action} has been queued meanwhile,
+	 * then this {@code ActionQueue} stays active instead.
+	 * 
+	 * @return true if this queue was deactivated; return false if it must stay
+	 *         active
+	 */
+	boolean deactivate() {
+		active.set(false);
+		return !(this.currentAction != null && active.compareAndSet(false, true));
 	}
 
 	/**
@@ -0,0 +1,311 @@
+package entity.actor;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+import event.Event;
+import infrastructure.GlobalVariables;
+
+/**
+ * The {@code ScriptAction} class is an {@code Action} written as a single linear method that can
+ * suspend itself, instead of a state machine driven by {@link Action#cycle(ActionState)}.
+ *
+ * <p>
+ * The {@link #run(int)} method is given the step to resume at and returns the step to continue
+ * from. Before returning, a step can suspend this {@code ScriptAction} by calling
+ * {@link #waitCycles(int)}, {@link #waitUntil(BooleanSupplier)} or {@link #waitFor(Class)}; the
+ * returned step is then executed once the wait is over. If a step returns without waiting, the
+ * returned step is executed immediately within the same cycle. Returning {@link #STOP} finishes
+ * this {@code ScriptAction}.
+ *
+ * <p>
+ * Every wait is held within the fields of this {@code ScriptAction}, so suspending and resuming it
+ * does not allocate anything. Any {@code BooleanSupplier} or {@code Predicate} given to a wait
+ * should be kept within a field if it captures anything, so it is not created on every wait.
+ *
+ * <p>
+ * <b>Example: This will chop a tree every 4 cycles until the inventory is full</b>
+ *
+ * <pre>
+ * new ScriptAction&lt;Persona&gt;(persona) {
+ * 	protected int run(int step) {
+ * 		switch (step) {
+ * 			case 0:
+ * 				animate(CHOP_ANIMATION);
+ * 				return waitCycles(4, 1);
+ * 			case 1:
+ * 				addLog();
+ * 				return inventoryFull() ? STOP : 0;
+ * 		}
+ * 		return STOP;
+ * 	}
+ * }.queue();
+ * </pre>
+ *
+ * @author Albert Beaupre
+ *
+ * @param <A>
+ *            The {@code Actor} type of this {@code ScriptAction}.
+ */
+public abstract class ScriptAction<A extends Actor> extends Action<A> {
+
+	/**
+	 * The step returned by {@link #run(int)} to finish a {@code ScriptAction}.
+	 */
+	public static final int STOP = -1;
+
+	private static final ConcurrentHashMap<Class<? extends Event>, EventWaiters> WAITERS = new ConcurrentHashMap<>();
+
+	private static final byte WAIT_NONE = 0, WAIT_CYCLES = 1, WAIT_UNTIL = 2, WAIT_EVENT = 3;
+
+	private int step; // The step to resume at
+	private byte waitType = WAIT_NONE;
+	private int remaining; // The cycles remaining on a WAIT_CYCLES
+	private BooleanSupplier condition; // The condition of a WAIT_UNTIL
+	private Predicate<Event> filter; // The filter of a WAIT_EVENT, or null if any event resumes
+	private volatile Event signal; // The event that resumed this ScriptAction
+
+	/*
+	 * These values are only used while this ScriptAction is waiting for an event.
+	 */
+	private EventWaiters waitingOn;
+	private ScriptAction<?> nextWaiter, previousWaiter;
+
+	/**
+	 * Constructs a new {@code ScriptAction} from the specified {@code actor} as the owner of this
+	 * {@code ScriptAction}.
+	 *
+	 * @param actor
+	 *            the owner of this action
+	 */
+	public ScriptAction(A actor) {
+		super(actor);
+	}
+
+	/**
+	 * Executes the specified {@code step} of this {@code ScriptAction} and returns the step to
+	 * continue from, or {@link #STOP} to finish.
+	 *
+	 * @param step
+	 *            the step to execute, starting at 0
+	 * @return the step to continue from
+	 */
+	protected abstract int run(int step);
+
+	/**
+	 * This method is called when this {@code ScriptAction} has been cancelled by its
+	 * {@code ActionQueue}. It does nothing by default.
+	 */
+	protected void onCancel() {}
+
+	/**
+	 * Returns true by default; a {@code ScriptAction} that must finish should override this method.
+	 *
+	 * @return true if cancellable; return false otherwise
+	 */
+	@Override
+	public boolean cancellable() {
+		return true;
+	}
+
+	/**
+	 * Suspends this {@code ScriptAction} for the specified amount of {@code cycles}, after which the
+	 * returned {@code next} step is executed.
+	 *
+	 * @param cycles
+	 *            the amount of cycles to wait
+	 * @param next
+	 *            the step to resume at
+	 * @return the step to resume at
+	 */
+	protected final int waitCycles(int cycles, int next) {
+		this.waitType = WAIT_CYCLES;
+		this.remaining = cycles;
+		return next;
+	}
+
+	/**
+	 * Suspends this {@code ScriptAction} for the specified amount of {@code cycles}, after which the
+	 * step after the current step is executed.
+	 *
+	 * @param cycles
+	 *            the amount of cycles to wait
+	 * @return the step to resume at
+	 */
+	protected final int waitCycles(int cycles) {
+		return waitCycles(cycles, step + 1);
+	}
+
+	/**
+	 * Suspends this {@code ScriptAction} until the specified {@code condition} is true, after which
+	 * the step after the current step is executed. The condition is checked once every cycle.
+	 *
+	 * @param condition
+	 *            the condition to wait for
+	 * @return the step to resume at
+	 */
+	protected final int waitUntil(BooleanSupplier condition) {
+		this.waitType = WAIT_UNTIL;
+		this.condition = condition;
+		return step + 1;
+	}
+
+	/**
+	 * Suspends this {@code ScriptAction} until an {@code Event} of the specified {@code eventClass}
+	 * has been called, after which the step after the current step is executed. The event can be
+	 * retrieved by {@link #getSignal()}.
+	 *
+	 * @param eventClass
+	 *            the class of the event to wait for
+	 * @return the step to resume at
+	 */
+	protected final <E extends Event> int waitFor(Class<E> eventClass) {
+		return waitFor(eventClass, null);
+	}
+
+	/**
+	 * Suspends this {@code ScriptAction} until an {@code Event} of the specified {@code eventClass}
+	 * that passes the specified {@code filter} has been called, after which the step after the current
+	 * step is executed. The event can be retrieved by {@link #getSignal()}.
+	 *
+	 * @param eventClass
+	 *            the class of the event to wait for
+	 * @param filter
+	 *            the filter the event must pass, or null if any event resumes
+	 * @return the step to resume at
+	 */
+	@SuppressWarnings("unchecked")
+	protected final <E extends Event> int waitFor(Class<E> eventClass, Predicate<? super E> filter) {
+		this.waitType = WAIT_EVENT;
+		this.filter = (Predicate<Event>) filter;
+		releaseSignal();
+		WAITERS.computeIfAbsent(eventClass, EventWaiters::new).add(this);
+		return step + 1;
+	}
+
+	/**
+	 * Returns the {@code Event} that resumed this {@code ScriptAction} from its last
+	 * {@link #waitFor(Class)}. A pooled {@code Event} is retained by this {@code ScriptAction} until
+	 * the next {@link #waitFor(Class)} or until it has finished.
+	 *
+	 * @return the event that resumed this action
+	 */
+	@SuppressWarnings("unchecked")
+	protected final <E extends Event> E getSignal() {
+		return (E) signal;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see entity.actor.Action#cycle(entity.actor.ActionState)
+	 */
+	@Override
+	public final boolean cycle(ActionState state) {
+		if (state == ActionState.CANCEL) {
+			clearWait();
+			releaseSignal();
+			onCancel();
+			return false;
+		}
+		if (state == ActionState.START)
+			setState(ActionState.RUNNING);
+
+		switch (waitType) {
+			case WAIT_CYCLES:
+				if (--remaining > 0)
+					return true;
+				break;
+			case WAIT_UNTIL:
+				if (!condition.getAsBoolean())
+					return true;
+				break;
+			case WAIT_EVENT:
+				if (signal == null)
+					return true;
+				break;
+			default:
+				break;
+		}
+		clearWait();
+
+		while (step != STOP) {
+			step = run(step);
+			if (waitType != WAIT_NONE && step != STOP)
+				return true;
+		}
+		clearWait();
+		releaseSignal();
+		setState(ActionState.FINISH);
+		return false;
+	}
+
+	private void releaseSignal() {
+		Event signal = this.signal;
+		if (signal != null) {
+			this.signal = null;
+			signal.release();
+		}
+	}
+
+	private void clearWait() {
+		if (waitingOn != null)
+			waitingOn.remove(this);
+		this.waitType = WAIT_NONE;
+		this.condition = null;
+		this.filter = null;
+	}
+
+	/**
+	 * Holds every {@code ScriptAction} waiting for a single {@code Event} class within an intrusive
+	 * list, so waiting does not allocate anything.
+	 */
+	private static final class EventWaiters {
+
+		private ScriptAction<?> head;
+
+		private EventWaiters(Class<? extends Event> eventClass) {
+			GlobalVariables.getEventManager().registerEvent(eventClass, this::signal);
+		}
+
+		private synchronized void add(ScriptAction<?> action) {
+			if (action.waitingOn != null)
+				action.waitingOn.remove(action);
+			action.waitingOn = this;
+			action.previousWaiter = null;
+			action.nextWaiter = head;
+			if (head != null)
+				head.previousWaiter = action;
+			head = action;
+		}
+
+		private synchronized void remove(ScriptAction<?> action) {
+			if (action.waitingOn != this)
+				return;
+			if (action.previousWaiter == null) {
+				head = action.nextWaiter;
+			} else {
+				action.previousWaiter.nextWaiter = action.nextWaiter;
+			}
+			if (action.nextWaiter != null)
+				action.nextWaiter.previousWaiter = action.previousWaiter;
+			action.nextWaiter = action.previousWaiter = null;
+			action.waitingOn = null;
+		}
+
+		private synchronized void signal(Event event) {
+			ScriptAction<?> action = head;
+			while (action != null) {
+				ScriptAction<?> next = action.nextWaiter;
+				Predicate<Event> filter = action.filter;
+				if (filter == null || filter.test(event)) {
+					event.retain();
+					action.signal = event;
+					remove(action);
+				}
+				action = next;
+			}
+		}
+	}
+}
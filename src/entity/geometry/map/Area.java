@@ -6,7 +6,6 @@ import entity.geometry.Location;
 import entity.geometry.Point3D;
 import entity.geometry.Shape3D;
 import event.EventListener;
-import event.EventMethod;
 import event.impl.EntityLocationChangeEvent;
 
 /**
@@ -14,6 +13,10 @@ import event.impl.EntityLocationChangeEvent;
  * object. The {@code Area} class is used by the {@link entity.geometry.map.AreaManager} class to
  * manage how the areas are handled.
  * 
+ * <p>
+ * An {@code Area} combined to an {@code AreaManager} is only notified of an
+ * {@code EntityLocationChangeEvent} that happens within the regions its bounds overlap.
+ * 
  * @author Albert Beaupre
  * 
  * @see entity.geometry.map.AreaManager
@@ -70,11 +73,34 @@ public abstract class Area implements Shape3D, EventListener {
 		return bounds.contains(point);
 	}
 
-	@EventMethod
+	/**
+	 * Returns the {@code Shape3D} bounding this {@code Area}.
+	 * 
+	 * @return the bounds
+	 */
+	Shape3D getBounds() {
+		return bounds;
+	}
+
+	/**
+	 * This method is called when an {@code Entity} has changed location within or across the regions
+	 * this {@code Area} overlaps, and calls {@link #onEnter(Entity, AreaChangeType)} or
+	 * {@link #onLeave(Entity, AreaChangeType)} if the {@code Entity} has entered or left this
+	 * {@code Area}.
+	 * 
+	 * @param event
+	 *            the location change of the entity
+	 */
 	public void onAreaChange(EntityLocationChangeEvent event) {
 		Location current = event.getCurrentLocation();
 		Location previous = event.getPreviousLocation();
 
+		if (current == null) {
+			if (previous != null && contains(previous)) {
+				onLeave(event.getEntity(), event.getType());
+			}
+			return;
+		}
 		if (previous == null) {
 			if (contains(current)) {
 				onEnter(event.getEntity(), event.getType());
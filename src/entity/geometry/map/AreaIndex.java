@@ -0,0 +1,214 @@
+package entity.geometry.map;
+
+import java.lang.reflect.Method;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntConsumer;
+
+import entity.geometry.Location;
+import entity.geometry.Point3D;
+import entity.geometry.Rectangle3D;
+import entity.geometry.Shape3D;
+import event.EventListener;
+import event.EventMethod;
+import event.EventSubscription;
+import infrastructure.GlobalVariables;
+import event.impl.EntityLocationChangeEvent;
+
+/**
+ * The {@code AreaIndex} class is the only listener of every {@code EntityLocationChangeEvent}, which
+ * it passes on to the {@code RSMap} of the {@code Entity} and to every {@code Area} it happens within
+ * the bounds of, instead of every {@code RSMap} and every {@code Area} listening for every
+ * {@code EntityLocationChangeEvent} in the world.
+ * 
+ * <p>
+ * Every {@code Area} is indexed by each 64x64 region its bounds overlap, on every plane they
+ * overlap. When an {@code Entity} changes location, only the areas indexed by the region and plane
+ * of its previous location and of its current location are notified, so the cost of a location
+ * change depends on the amount of areas nearby instead of the amount of areas in total.
+ * 
+ * <p>
+ * An {@code Area} can be combined to more than one {@code AreaManager}, so every {@code Area} is
+ * counted by the amount of times it has been added, and is only indexed once and removed from the
+ * index once it has been removed as many times. An {@code Area} declaring any other
+ * {@code EventMethod} is registered to the {@code EventManager} for as long as it is indexed.
+ * 
+ * @author Albert Beaupre
+ * 
+ * @see entity.geometry.map.AreaManager
+ */
+final class AreaIndex implements EventListener {
+
+	private static final Area[] NO_AREAS = new Area[0];
+
+	/**
+	 * This value tells whether each {@code Area} class declares an {@code EventMethod} of its own, and
+	 * so must be registered to the {@code EventManager} to receive any other {@code Event}.
+	 */
+	private static final ClassValue<Boolean> LISTENS = new ClassValue<Boolean>() {
+		@Override
+		protected Boolean computeValue(Class<?> type) {
+			for (Class<?> c = type; c != null && c != Area.class; c = c.getSuperclass())
+				for (Method method : c.getDeclaredMethods())
+					if (method.isAnnotationPresent(EventMethod.class))
+						return true;
+			return false;
+		}
+	};
+
+	/**
+	 * This map is used to store the areas overlapping each region, keyed by the packed coordinates and
+	 * plane of the region. Every array is never modified once stored, so it can be iterated while another
+	 * thread adds or removes an {@code Area}.
+	 */
+	private final ConcurrentHashMap<Integer, Area[]> regions = new ConcurrentHashMap<>();
+
+	/**
+	 * This map is used to store how many times each indexed {@code Area} has been added, along with the
+	 * subscription of its other {@code EventMethod} listeners, if any.
+	 */
+	private final IdentityHashMap<Area, Indexed> indexed = new IdentityHashMap<>();
+
+	/**
+	 * Indexes the specified {@code area} by every region its bounds overlap, unless it has already
+	 * been indexed, in which case it is only counted once more.
+	 * 
+	 * @param area
+	 *            the area to index
+	 */
+	synchronized void add(Area area) {
+		Indexed entry = indexed.get(area);
+		if (entry != null) {
+			entry.count++;
+			return;
+		}
+		EventSubscription subscription = LISTENS.get(area.getClass()) ? GlobalVariables.getEventManager().registerEventListener(area) : null;
+		indexed.put(area, new Indexed(subscription));
+
+		forEachRegion(area, key -> regions.compute(key, (k, areas) -> {
+			if (areas == null)
+				return new Area[] { area };
+			for (Area indexed : areas)
+				if (indexed == area)
+					return areas;
+			Area[] updated = new Area[areas.length + 1];
+			System.arraycopy(areas, 0, updated, 0, areas.length);
+			updated[areas.length] = area;
+			return updated;
+		}));
+	}
+
+	/**
+	 * Removes the specified {@code area} from every region it has been indexed by, once it has been
+	 * removed as many times as it has been added.
+	 * 
+	 * @param area
+	 *            the area to remove
+	 */
+	synchronized void remove(Area area) {
+		Indexed entry = indexed.get(area);
+		if (entry == null || --entry.count > 0)
+			return;
+		indexed.remove(area);
+		if (entry.subscription != null)
+			entry.subscription.unregister();
+
+		forEachRegion(area, key -> regions.computeIfPresent(key, (k, areas) -> {
+			for (int i = 0; i < areas.length; i++) {
+				if (areas[i] != area)
+					continue;
+				if (areas.length == 1)
+					return null;
+				Area[] updated = new Area[areas.length - 1];
+				System.arraycopy(areas, 0, updated, 0, i);
+				System.arraycopy(areas, i + 1, updated, i, areas.length - i - 1);
+				return updated;
+			}
+			return areas;
+		}));
+	}
+
+	@EventMethod
+	public void onEntityLocationChange(EntityLocationChangeEvent event) {
+		Location current = event.getCurrentLocation();
+		Location previous = event.getPreviousLocation();
+
+		RSMap map = current != null ? current.map : previous != null ? previous.map : null;
+		if (map != null)
+			map.onEntityLocationChange(event);
+
+		Area[] currentAreas = current == null ? NO_AREAS : regions.getOrDefault(key(current.x >> 6, current.y >> 6, current.z), NO_AREAS);
+		for (int i = 0; i < currentAreas.length; i++)
+			currentAreas[i].onAreaChange(event);
+
+		if (previous == null)
+			return;
+		Area[] previousAreas = regions.getOrDefault(key(previous.x >> 6, previous.y >> 6, previous.z), NO_AREAS);
+		if (previousAreas == currentAreas)
+			return;
+		next: for (int i = 0; i < previousAreas.length; i++) {
+			for (int j = 0; j < currentAreas.length; j++)
+				if (currentAreas[j] == previousAreas[i])
+					continue next; // Already notified by the current region
+			previousAreas[i].onAreaChange(event);
+		}
+	}
+
+	/**
+	 * Applies the specified {@code action} to the key of every region the bounds of the specified
+	 * {@code area} overlap, on every plane they overlap.
+	 */
+	private static void forEachRegion(Area area, IntConsumer action) {
+		int[] box = boundingBox(area.getBounds());
+		if (box == null)
+			return;
+		for (int z = Math.max(box[4], 0); z <= Math.min(box[5], 3); z++)
+			for (int regionX = box[0] >> 6; regionX <= box[2] >> 6; regionX++)
+				for (int regionY = box[1] >> 6; regionY <= box[3] >> 6; regionY++)
+					action.accept(key(regionX, regionY, z));
+	}
+
+	/**
+	 * Returns the inclusive bounding box of the specified {@code bounds} as
+	 * {@code {minX, minY, maxX, maxY, minZ, maxZ}}, or null if the {@code bounds} contain no point.
+	 * The bounding box of a {@code Rectangle3D} is taken from its fields; any other shape lists its
+	 * points once.
+	 */
+	static int[] boundingBox(Shape3D bounds) {
+		if (bounds instanceof Rectangle3D) {
+			Rectangle3D rectangle = (Rectangle3D) bounds;
+			return new int[] { rectangle.x, rectangle.y, rectangle.x + rectangle.length, rectangle.y + rectangle.width, rectangle.z, rectangle.z + rectangle.height };
+		}
+		List<Point3D> points = bounds.listPoints();
+		if (points.isEmpty())
+			return null;
+		int[] box = { Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE, Integer.MIN_VALUE };
+		for (Point3D point : points) {
+			box[0] = Math.min(box[0], point.x);
+			box[1] = Math.min(box[1], point.y);
+			box[2] = Math.max(box[2], point.x);
+			box[3] = Math.max(box[3], point.y);
+			box[4] = Math.min(box[4], point.z);
+			box[5] = Math.max(box[5], point.z);
+		}
+		return box;
+	}
+
+	private static int key(int regionX, int regionY, int z) {
+		return z << 28 | (regionX & 0x3FFF) << 14 | regionY & 0x3FFF;
+	}
+
+	/**
+	 * The count and subscription of a single indexed {@code Area}.
+	 */
+	private static final class Indexed {
+
+		private final EventSubscription subscription; // The subscription of the other EventMethods, or null if none
+		private int count = 1; // The amount of times the Area has been added
+
+		private Indexed(EventSubscription subscription) {
+			this.subscription = subscription;
+		}
+	}
+}
@@ -11,6 +11,13 @@ import infrastructure.GlobalVariables;
 /**
  * The {@code AreaManager} holds
  * 
+ * <p>
+ * Every {@code Area} combined to any {@code AreaManager} is indexed by the regions it overlaps, so
+ * it is only notified of an {@code EntityLocationChangeEvent} happening near it. An {@code Area}
+ * declaring an {@code EventMethod} of its own is also registered to the {@code EventManager} while
+ * it is combined to any {@code AreaManager}. An {@code Area} combined to several managers is indexed
+ * and registered only once, until it has been removed from every one of them.
+ * 
  * @author Albert Beaupre
  * 
  * @see entity.geometry.map.Area
@@ -23,6 +30,8 @@ public class AreaManager implements Shape3D {
 	 */
 	private HashSet<Area> combinedArea;
 
+	private static AreaIndex index; // Notifies every combined Area of nearby location changes
+
 	/**
 	 * Constructs a new {@code AreaManager} with empty arguments.
 	 */
@@ -37,9 +46,36 @@ public class AreaManager implements Shape3D {
 	 *            the {@code Area} to combine to this {@code AreaManager}
 	 */
 	public void combine(Area area) {
-		this.combinedArea.add(area);
+		if (!this.combinedArea.add(area))
+			return;
+
+		getIndex().add(area);
+	}
 
-		GlobalVariables.getEventManager().registerEventListener(area);
+	/**
+	 * Removes the specified {@code Area} from this {@code AreaManager}, so it is no longer notified of
+	 * any location change.
+	 * 
+	 * @param area
+	 *            the {@code Area} to remove from this {@code AreaManager}
+	 */
+	public void remove(Area area) {
+		if (!this.combinedArea.remove(area))
+			return;
+
+		getIndex().remove(area);
+	}
+
+	/**
+	 * Returns the {@code AreaIndex} shared by every {@code AreaManager}, registering it to the
+	 * {@code EventManager} once it is first used.
+	 */
+	static synchronized AreaIndex getIndex() {
+		if (index == null) {
+			index = new AreaIndex();
+			GlobalVariables.getEventManager().registerEventListener(index);
+		}
+		return index;
 	}
 
 	/*
@@ -4,6 +4,11 @@ package entity.geometry.map;
  * A {@code Chunk} is an 8x8 section of a {@code WorldMap} containing essential clipping and flag
  * information for a specific absolute location.
  * 
+ * <p>
+ * Once a {@code Chunk} has been placed on an {@code RSMap}, its clipping and flags are stored within
+ * the flat arrays of the {@code MapRegion} containing it. Until then, they are stored within arrays
+ * of its own, which are copied to the region once it is placed.
+ * 
  * @author Albert Beaupre
  */
 public class Chunk {
@@ -13,22 +18,26 @@ public class Chunk {
 	public static final int FLAG_UNKNOWN = 0x8;
 	public static final int FLAG_UNKNOWN2 = 0x10;
 
-	private boolean loaded = false;
+	private volatile boolean loaded = false;
 	private int cacheX;
 	private int cacheY;
 	private int cacheZ;
 
 	/**
-	 * The clip flags for this chunk. Indexes are [x][y], where x and y are 0 to 7. May be null, in
-	 * which case all values can be assumed to be -1
+	 * The clip flags for this chunk, within the array of its region or an array of its own. May be
+	 * null, in which case all values can be assumed to be 0.
 	 */
-	private int[][] clip; // x, y
+	private int[] clip;
 
 	/**
-	 * The flags such as indoors or bridge flags. Indexes are [x][y] where x and y are 0 to 7. May be
-	 * null, in which case all values are assumed to be 0
+	 * The flags such as indoors or bridge flags, within the array of its region or an array of its
+	 * own. May be null, in which case all values are assumed to be 0.
 	 */
-	private byte[][] flags;
+	private byte[] flags;
+
+	private MapRegion region; // The region storing this chunk, or null if not placed on a map
+	private int base; // The index of (0, 0) of this chunk within the arrays
+	private int localX, localY, plane; // The local coordinates of (0, 0) of this chunk within its region
 
 	/**
 	 * Constructs a new chunk, with the given values representing the location from the cache to load
@@ -61,8 +70,8 @@ public class Chunk {
 	 */
 	public void addClip(int x, int y, int clip) {
 		if (this.clip == null)
-			this.clip = new int[RSMap.CHUNK_SIZE][RSMap.CHUNK_SIZE];
-		this.clip[x][y] |= clip;
+			this.clip = new int[RSMap.CHUNK_SIZE << MapRegion.BITS];
+		this.clip[base + (x << MapRegion.BITS) + y] |= clip;
 	}
 
 	/**
@@ -79,7 +88,7 @@ public class Chunk {
 	public void removeClip(int x, int y, int clip) {
 		if (this.clip == null)
 			return;
-		this.clip[x][y] &= ~clip;
+		this.clip[base + (x << MapRegion.BITS) + y] &= ~clip;
 	}
 
 	/**
@@ -94,7 +103,7 @@ public class Chunk {
 	public int getClip(int x, int y) {
 		if (this.clip == null)
 			return 0; // No clips here!
-		return this.clip[x][y];
+		return this.clip[base + (x << MapRegion.BITS) + y];
 	}
 
 	/**
@@ -113,8 +122,8 @@ public class Chunk {
 			return; // It's assumed to be 0 already. This saves us allocating extra
 					// data.
 		if (this.flags == null)
-			this.flags = new byte[RSMap.CHUNK_SIZE][RSMap.CHUNK_SIZE];
-		this.flags[x][y] = (byte) flag;
+			this.flags = new byte[RSMap.CHUNK_SIZE << MapRegion.BITS];
+		this.flags[base + (x << MapRegion.BITS) + y] = (byte) flag;
 	}
 
 	/**
@@ -129,7 +138,7 @@ public class Chunk {
 	public int getFlags(int x, int y) {
 		if (this.flags == null)
 			return 0;
-		return this.flags[x][y];
+		return this.flags[base + (x << MapRegion.BITS) + y];
 	}
 
 	/**
@@ -144,7 +153,7 @@ public class Chunk {
 	 * @return true if this chunk has all of the given flags; return false otherwise
 	 */
 	public boolean hasFlag(int x, int y, int flag) {
-		return (this.flags[x][y] & flag) == flag;
+		return (getFlags(x, y) & flag) == flag;
 	}
 
 	/**
@@ -166,6 +175,35 @@ public class Chunk {
 	 */
 	public void setLoaded(boolean loaded) {
 		this.loaded = loaded;
+		if (region != null)
+			region.setLoaded(localX, localY, plane, loaded);
+	}
+
+	/**
+	 * Places this {@code Chunk} within the specified {@code region} at the specified local
+	 * coordinates and plane, copying any clipping and flags it already has to the arrays of the
+	 * region. A {@code Chunk} without any clipping or flags keeps the values already within the
+	 * region, such as the values copied from a {@code CollisionFile}.
+	 */
+	void place(MapRegion region, int localX, int localY, int z) {
+		int base = MapRegion.index(localX, localY, z);
+		for (int x = 0; x < RSMap.CHUNK_SIZE; x++) {
+			for (int y = 0; y < RSMap.CHUNK_SIZE; y++) {
+				int index = base + (x << MapRegion.BITS) + y;
+				if (clip != null)
+					region.clip[index] = getClip(x, y);
+				if (flags != null)
+					region.flags[index] = (byte) getFlags(x, y);
+			}
+		}
+		this.clip = region.clip;
+		this.flags = region.flags;
+		this.base = base;
+		this.region = region;
+		this.localX = localX;
+		this.localY = localY;
+		this.plane = z;
+		region.setLoaded(localX, localY, z, loaded);
 	}
 
 	/**
@@ -0,0 +1,112 @@
+package entity.geometry.map;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import infrastructure.CoreThread;
+
+/**
+ * The {@code ChunkLoader} class fetches the chunks requested by an {@code RSMap} across a fixed
+ * amount of workers, so the thread requesting a chunk never decodes its landscape itself.
+ *
+ * <p>
+ * Every chunk is requested at most once until it has been fetched. An urgent request, such as the
+ * chunk an {@code Entity} is standing next to, is queued ahead of every other request, and moves a
+ * chunk already queued to the front, while a request to prefetch a chunk is queued behind them.
+ *
+ * @author Albert Beaupre
+ *
+ * @see entity.geometry.map.RSMap#enableStreaming(int)
+ */
+final class ChunkLoader {
+
+	private static final Logger LOGGER = Logger.getLogger(ChunkLoader.class.getName());
+	private static final int STOP = -1; // Queued to stop a worker, as no chunk has a negative key
+
+	private final RSMap map;
+	private final Worker[] workers;
+	private final LinkedBlockingDeque<Integer> queue = new LinkedBlockingDeque<>();
+	private final Set<Integer> pending = ConcurrentHashMap.newKeySet(); // The key of every chunk queued or being fetched
+	private volatile boolean running = true;
+
+	/**
+	 * Constructs a new {@code ChunkLoader} fetching chunks for the specified {@code map} on the
+	 * specified amount of {@code workers}.
+	 */
+	ChunkLoader(RSMap map, int workers) {
+		if (workers < 1)
+			throw new IllegalArgumentException("A ChunkLoader must have at least 1 worker");
+		this.map = map;
+		this.workers = new Worker[workers];
+		for (int i = 0; i < workers; i++) {
+			this.workers[i] = new Worker(i);
+			this.workers[i].start();
+		}
+	}
+
+	/**
+	 * Queues the chunk at the specified chunk coordinates to be fetched, unless it has already been
+	 * queued. An {@code urgent} chunk is queued ahead of every other chunk.
+	 */
+	void request(int chunkX, int chunkY, int chunkZ, boolean urgent) {
+		if (!running)
+			return;
+		Integer key = chunkZ << 28 | (chunkX & 0x3FFF) << 14 | chunkY & 0x3FFF;
+		if (!pending.add(key)) {
+			if (urgent && queue.removeLastOccurrence(key))
+				queue.offerFirst(key); // Not being fetched yet, so it is moved ahead
+			return;
+		}
+		if (urgent)
+			queue.offerFirst(key);
+		else queue.offerLast(key);
+	}
+
+	/**
+	 * Stops every worker once it has fetched the chunk it is fetching, discarding every chunk still
+	 * queued. The workers are not interrupted, so a chunk being fetched is never aborted; an idle
+	 * worker is woken up by a {@code STOP} key instead.
+	 */
+	void shutdown() {
+		running = false;
+		queue.clear();
+		for (int i = 0; i < workers.length; i++)
+			queue.offerFirst(STOP);
+	}
+
+	/**
+	 * Fetches every chunk queued to it, one after another.
+	 */
+	private final class Worker extends CoreThread {
+
+		private Worker(int index) {
+			super("Chunk Loader[" + index + "]", Thread.NORM_PRIORITY, true);
+		}
+
+		@Override
+		public void run() {
+			while (running) {
+				int key;
+				try {
+					key = queue.take();
+				} catch (InterruptedException e) {
+					continue;
+				}
+				if (key == STOP)
+					break;
+				int chunkX = key >> 14 & 0x3FFF, chunkY = key & 0x3FFF, chunkZ = key >>> 28;
+				try {
+					if (!map.isLoaded(chunkX, chunkY, chunkZ))
+						map.fetch(chunkX, chunkY, chunkZ);
+				} catch (Exception e) {
+					LOGGER.log(Level.WARNING, String.format("Failed to fetch the chunk at %s, %s, %s", chunkX, chunkY, chunkZ), e);
+				} finally {
+					pending.remove(key);
+				}
+			}
+		}
+	}
+}
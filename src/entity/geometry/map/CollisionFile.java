@@ -0,0 +1,212 @@
+package entity.geometry.map;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+
+/**
+ * The {@code CollisionFile} class holds the precomputed clipping and flags of every loaded chunk of
+ * an {@code RSMap}, on every plane, within a binary file built offline by
+ * {@link #build(RSMap, File)}.
+ *
+ * <p>
+ * The file is mapped read-only by {@link #open(File)}, so its data is kept off the heap and read
+ * from the page cache of the operating system, which is shared by every process mapping the same
+ * file. An {@code RSMap} constructed with a {@code CollisionFile} reads the clipping of a tile from
+ * the file until a chunk of its region is changed, at which point the region is copied to the heap
+ * and changed there instead; the file itself is never written to.
+ *
+ * <p>
+ * The file starts with a header of {@code MAGIC}, {@code VERSION}, the tile coordinates of the
+ * offset of the map, and the amount of regions along each axis, followed by the offset of the block
+ * of every region, or -1 if the region has no loaded chunk. Every block holds the loaded chunks of
+ * the region as {@code long[4]}, its clipping as {@code int[4 << 12]} and its flags as
+ * {@code byte[4 << 12]}, indexed the same way as a {@code MapRegion}.
+ *
+ * <p>
+ * <b>Example: This will build the collision file of a map offline, and use it on startup</b>
+ *
+ * <pre>
+ * CollisionFile.build(map, new File("data/collision.dat"));
+ *
+ * // On startup, within the constructor of the map
+ * super(world, offset, width, height, CollisionFile.open(new File("data/collision.dat")));
+ * </pre>
+ *
+ * @author Albert Beaupre
+ *
+ * @see entity.geometry.map.RSMap
+ */
+public final class CollisionFile {
+
+	private static final int MAGIC = 0x434C4950; // "CLIP"
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 24;
+	private static final int CLIP_OFFSET = 4 << 3; // The loaded chunks are stored before the clipping
+	private static final int FLAGS_OFFSET = CLIP_OFFSET + (4 << 14);
+	private static final int BLOCK_SIZE = FLAGS_OFFSET + (4 << 12);
+
+	private final MappedByteBuffer buffer;
+	private final int[] blocks; // The offset of the block of every region, or -1 if it has none
+	private final int baseX, baseY, regionsWide, regionsHigh;
+
+	/**
+	 * Constructs a new {@code CollisionFile} reading the specified {@code buffer}.
+	 */
+	private CollisionFile(MappedByteBuffer buffer) throws IOException {
+		if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC)
+			throw new IOException("The file is not a collision file");
+		if (buffer.getInt(4) != VERSION)
+			throw new IOException("Unsupported collision file version: " + buffer.getInt(4));
+		this.buffer = buffer;
+		this.baseX = buffer.getInt(8);
+		this.baseY = buffer.getInt(12);
+		this.regionsWide = buffer.getInt(16);
+		this.regionsHigh = buffer.getInt(20);
+		this.blocks = new int[regionsWide * regionsHigh];
+		for (int i = 0; i < blocks.length; i++) {
+			blocks[i] = buffer.getInt(HEADER_SIZE + (i << 2));
+			if (blocks[i] != -1 && (blocks[i] < 0 || blocks[i] > buffer.limit() - BLOCK_SIZE))
+				throw new IOException("The collision file is truncated");
+		}
+	}
+
+	/**
+	 * Maps the specified {@code file}, built by {@link #build(RSMap, File)}, read-only into memory.
+	 *
+	 * @param file
+	 *            the collision file to map
+	 * @return the mapped collision file
+	 * @throws IOException
+	 *             if the file cannot be read or is not a collision file
+	 */
+	public static CollisionFile open(File file) throws IOException {
+		try (RandomAccessFile raf = new RandomAccessFile(file, "r"); FileChannel channel = raf.getChannel()) {
+			if (channel.size() > Integer.MAX_VALUE)
+				throw new IOException("The collision file is too large to be mapped: " + channel.size());
+			return new CollisionFile(channel.map(MapMode.READ_ONLY, 0, channel.size()));
+		}
+	}
+
+	/**
+	 * Builds the collision file of the specified {@code map} into the specified {@code file}. Every
+	 * chunk of the map, on every plane, is fetched first, so its landscape and objects are decoded by
+	 * the map the same way as they would be at runtime. This is meant to be run offline, as fetching
+	 * every chunk of a map can take a long time.
+	 *
+	 * @param map
+	 *            the map to build the collision file of
+	 * @param file
+	 *            the file to write the collision file into
+	 * @throws IOException
+	 *             if the file cannot be written
+	 */
+	public static void build(RSMap map, File file) throws IOException {
+		int chunkX = map.baseX >> RSMap.CHUNK_BITS, chunkY = map.baseY >> RSMap.CHUNK_BITS;
+		for (int x = 0; x < map.width >> RSMap.CHUNK_BITS; x++)
+			for (int y = 0; y < map.height >> RSMap.CHUNK_BITS; y++)
+				for (int z = 0; z < 4; z++)
+					if (!map.isLoaded(chunkX + x, chunkY + y, z))
+						map.fetch(chunkX + x, chunkY + y, z);
+
+		MapRegion[] regions = map.regions;
+		int offset = HEADER_SIZE + (regions.length << 2);
+		int[] blocks = new int[regions.length];
+		for (int i = 0; i < regions.length; i++) {
+			MapRegion region = regions[i];
+			if (region == null || (region.loaded.get(0) | region.loaded.get(1) | region.loaded.get(2) | region.loaded.get(3)) == 0) {
+				blocks[i] = -1;
+				continue;
+			}
+			if (offset > Integer.MAX_VALUE - BLOCK_SIZE)
+				throw new IOException("The map is too large for a collision file");
+			blocks[i] = offset;
+			offset += BLOCK_SIZE;
+		}
+
+		if (file.getParentFile() != null)
+			file.getParentFile().mkdirs();
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(map.baseX);
+			out.writeInt(map.baseY);
+			out.writeInt(map.regionsWide);
+			out.writeInt(map.regionsHigh);
+			for (int block : blocks)
+				out.writeInt(block);
+			for (int i = 0; i < regions.length; i++) {
+				if (blocks[i] == -1)
+					continue;
+				MapRegion region = regions[i];
+				for (int z = 0; z < 4; z++)
+					out.writeLong(region.loaded.get(z));
+				for (int clip : region.clip)
+					out.writeInt(clip);
+				out.write(region.flags);
+			}
+		}
+	}
+
+	/**
+	 * Returns {@code true} if this {@code CollisionFile} was built for a map with the specified
+	 * offset and amount of regions.
+	 */
+	boolean matches(int baseX, int baseY, int regionsWide, int regionsHigh) {
+		return this.baseX == baseX && this.baseY == baseY && this.regionsWide == regionsWide && this.regionsHigh == regionsHigh;
+	}
+
+	/**
+	 * Returns {@code true} if the chunk of the tile at the specified local coordinates within the
+	 * region at the specified {@code regionIndex} was loaded when this file was built.
+	 */
+	boolean isLoaded(int regionIndex, int localX, int localY, int z) {
+		int block = blocks[regionIndex];
+		return block != -1 && (buffer.getLong(block + (z << 3)) >>> ((localX >> 3) << 3 | localY >> 3) & 1L) != 0;
+	}
+
+	/**
+	 * Returns the clip of the tile at the specified local coordinates within the region at the
+	 * specified {@code regionIndex}, or 0 if its chunk was not loaded.
+	 */
+	int getClip(int regionIndex, int localX, int localY, int z) {
+		if (!isLoaded(regionIndex, localX, localY, z))
+			return 0;
+		return buffer.getInt(blocks[regionIndex] + CLIP_OFFSET + (MapRegion.index(localX, localY, z) << 2));
+	}
+
+	/**
+	 * Returns the flags of the tile at the specified local coordinates within the region at the
+	 * specified {@code regionIndex}, or 0 if its chunk was not loaded.
+	 */
+	int getFlags(int regionIndex, int localX, int localY, int z) {
+		if (!isLoaded(regionIndex, localX, localY, z))
+			return 0;
+		return buffer.get(blocks[regionIndex] + FLAGS_OFFSET + MapRegion.index(localX, localY, z));
+	}
+
+	/**
+	 * Copies the region at the specified {@code regionIndex} into the specified {@code region}, so it
+	 * can be changed on the heap. The loaded chunks are copied last, so they are published after the
+	 * values of the chunks.
+	 */
+	void copy(int regionIndex, MapRegion region) {
+		int block = blocks[regionIndex];
+		if (block == -1)
+			return;
+		ByteBuffer view = buffer.duplicate(); // The position of the mapped buffer is never changed
+		view.position(block + CLIP_OFFSET);
+		view.asIntBuffer().get(region.clip);
+		view.position(block + FLAGS_OFFSET);
+		view.get(region.flags);
+		for (int z = 0; z < 4; z++)
+			region.loaded.set(z, buffer.getLong(block + (z << 3)));
+	}
+}
@@ -0,0 +1,76 @@
+package entity.geometry.map;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The {@code MapRegion} class holds the clipping and flags of every tile within a 64x64 region of an
+ * {@code RSMap}, on every plane, within a single flat array each. The value of a tile is found at
+ * the index {@code z << 12 | localX << 6 | localY}, where the local coordinates are relative to the
+ * region.
+ * 
+ * <p>
+ * Every {@code Chunk} within a {@code MapRegion} stores its values within the arrays of the region,
+ * and the region tracks which of its chunks have been loaded, so a tile can be read without
+ * reaching its {@code Chunk}.
+ * 
+ * <p>
+ * The loaded chunks are published atomically, so a tile of a chunk loaded on another thread is
+ * only read once every value written to the chunk before it was set as loaded can be read.
+ * 
+ * @author Albert Beaupre
+ * 
+ * @see entity.geometry.map.Chunk
+ */
+final class MapRegion {
+
+	static final int SIZE = 64; // The length of a region in tiles
+	static final int BITS = 6; // The bits of the length of a region
+
+	final int[] clip = new int[4 << 12];
+	final byte[] flags = new byte[4 << 12];
+
+	final AtomicLongArray loaded = new AtomicLongArray(4); // A bit for each chunk of each plane, set once loaded
+
+	/**
+	 * Returns the index of the tile at the specified local coordinates within the arrays of a
+	 * {@code MapRegion}.
+	 */
+	static int index(int localX, int localY, int z) {
+		return z << 12 | localX << BITS | localY;
+	}
+
+	/**
+	 * Returns the clip of the tile at the specified local coordinates, or 0 if its chunk has not been
+	 * loaded.
+	 */
+	int getClip(int localX, int localY, int z) {
+		return isLoaded(localX, localY, z) ? clip[index(localX, localY, z)] : 0;
+	}
+
+	/**
+	 * Returns the flags of the tile at the specified local coordinates, or 0 if its chunk has not been
+	 * loaded.
+	 */
+	int getFlags(int localX, int localY, int z) {
+		return isLoaded(localX, localY, z) ? flags[index(localX, localY, z)] : 0;
+	}
+
+	/**
+	 * Returns {@code true} if the chunk of the tile at the specified local coordinates has been
+	 * loaded.
+	 */
+	boolean isLoaded(int localX, int localY, int z) {
+		return (loaded.get(z) >>> ((localX >> 3) << 3 | localY >> 3) & 1L) != 0;
+	}
+
+	/**
+	 * Sets whether the chunk of the tile at the specified local coordinates has been loaded.
+	 */
+	void setLoaded(int localX, int localY, int z, boolean value) {
+		long bit = 1L << ((localX >> 3) << 3 | localY >> 3);
+		long current;
+		do {
+			current = loaded.get(z);
+		} while (!loaded.compareAndSet(z, current, value ? current | bit : current & ~bit));
+	}
+}
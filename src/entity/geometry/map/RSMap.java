@@ -1,18 +1,22 @@
 package entity.geometry.map;
 
-import java.util.HashMap;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
+import entity.AttributeKey;
 import entity.Entity;
 import entity.EntityList;
 import entity.actor.npc.NPC;
 import entity.geometry.Location;
 import entity.geometry.Point3D;
 import entity.geometry.Shape3D;
-import event.EventListener;
-import event.EventMethod;
 import event.impl.EntityLocationChangeEvent;
-import infrastructure.GlobalVariables;
 import network.World;
 
 /**
@@ -20,7 +24,7 @@ import network.World;
  * @author Albert Beaupre
  */
 @SuppressWarnings({ "rawtypes", "unchecked" })
-public abstract class RSMap extends AreaManager implements EventListener {
+public abstract class RSMap extends AreaManager {
 
 	public static final int FLAG_CLIP = 0x1;
 	public static final int FLAG_BRIDGE = 0x2;
@@ -56,6 +60,23 @@ public abstract class RSMap extends AreaManager implements EventListener {
 	 */
 	public static final int LOAD_RADIUS = 104 / 2;
 
+	/**
+	 * The number of chunks beyond the loaded area that are prefetched ahead of the direction an
+	 * {@code Entity} is moving in, while chunks are streamed.
+	 */
+	public static final int PREFETCH_CHUNKS = 3;
+
+	/**
+	 * The location of the last map region sent to an {@code Entity}.
+	 */
+	private static final AttributeKey<Location> PREVIOUS_REGION_LOCATION = AttributeKey.create("previous_region_location");
+
+	/**
+	 * Reads and publishes the chunks of a column with acquire and release semantics, so a chunk
+	 * published under the lock of its region is read fully placed without taking the lock.
+	 */
+	private static final VarHandle CHUNK = MethodHandles.arrayElementVarHandle(Chunk[].class);
+
 	/**
 	 * This is the length in tiles of this {@code RSMap}.
 	 */
@@ -67,10 +88,22 @@ public abstract class RSMap extends AreaManager implements EventListener {
 	public final int height;
 
 	private final EntityList<NPC> npcs = new EntityList<>(32000);
-	private HashMap<Location, HashSet<? extends Entity>> entities = new HashMap<>();
+	private final SpatialGrid grid = new SpatialGrid(); // Every entity on this map by the chunk of its location
 	private final Point3D offset;
 	private Chunk[][][] chunks;
 
+	/*
+	 * The regions storing the clipping and flags of every placed chunk, indexed by regionX *
+	 * regionsHigh + regionY relative to the offset of this map.
+	 */
+	final MapRegion[] regions;
+	final int baseX, baseY; // The tile coordinates of the offset of this map
+	final int regionsWide, regionsHigh;
+	private final CollisionFile collision; // The precomputed clipping of this map, or null if none
+	private volatile ChunkLoader loader; // The loader fetching chunks in the background, or null if not streaming
+	private final Object[] locks; // The lock publishing the chunks of each region, indexed like the regions
+	private final ConcurrentHashMap<Integer, List<ClipChange>> deferred = new ConcurrentHashMap<>(); // The clip changes to chunks not published yet
+
 	private final World world;
 
 	/**
@@ -80,6 +113,19 @@ public abstract class RSMap extends AreaManager implements EventListener {
 	 * @param width
 	 */
 	public RSMap(World world, Point3D offset, int width, int height) {
+		this(world, offset, width, height, null);
+	}
+
+	/**
+	 * Constructs a new {@code RSMap} reading the clipping and flags of every chunk loaded within the
+	 * specified {@code collision} file from it, instead of fetching the chunk.
+	 * 
+	 * @param collision
+	 *            the collision file built for this map, or null if none
+	 * @throws IllegalArgumentException
+	 *             if the collision file was built for a map with another offset or size
+	 */
+	public RSMap(World world, Point3D offset, int width, int height, CollisionFile collision) {
 		this.world = world;
 		this.offset = offset;
 		this.width = width;
@@ -88,75 +134,82 @@ public abstract class RSMap extends AreaManager implements EventListener {
 		if (width % CHUNK_SIZE != 0 || height % CHUNK_SIZE != 0)
 			throw new IllegalArgumentException("Maps must be a multiple of chunk size.. given length: " + width + ", width: " + height);
 		this.chunks = new Chunk[width >> CHUNK_BITS][height >> CHUNK_BITS][4];
-
-		GlobalVariables.getEventManager().registerEventListener(this);
+		this.baseX = offset.x << CHUNK_BITS;
+		this.baseY = offset.y << CHUNK_BITS;
+		this.regionsWide = (width + MapRegion.SIZE - 1) >> MapRegion.BITS;
+		this.regionsHigh = (height + MapRegion.SIZE - 1) >> MapRegion.BITS;
+		this.regions = new MapRegion[regionsWide * regionsHigh];
+		this.locks = new Object[regions.length];
+		for (int i = 0; i < locks.length; i++)
+			this.locks[i] = new Object();
+		if (collision != null && !collision.matches(baseX, baseY, regionsWide, regionsHigh))
+			throw new IllegalArgumentException("The collision file was not built for a map of this offset and size");
+		this.collision = collision;
+		this.npcs.enableStore();
+
+		getIndex(); // Registers the listener passing location changes on to this map
 	}
 
-	@EventMethod
+	/**
+	 * This method is called by the {@code AreaIndex} when an {@code Entity} has changed location to
+	 * this {@code RSMap}, or has been removed from it.
+	 * 
+	 * @param event
+	 *            the location change of the entity
+	 */
 	public void onEntityLocationChange(EntityLocationChangeEvent event) {
 		Entity entity = event.getEntity();
 		if (entity.getLocation() != null && entity.getLocation().map != this)
 			return;
-		if (event.getCurrentLocation() == null) {
-			if (entity instanceof NPC) {
+		Location previous = event.getPreviousLocation();
+		Location current = event.getCurrentLocation();
+		if (current == null) {
+			if (entity instanceof NPC)
 				npcs.remove((NPC) entity);
-			} else {
-				if (event.getPreviousLocation() != null) {
-					HashSet fromSet = this.entities.get(event.getPreviousLocation());
-					if (fromSet == null)
-						fromSet = new HashSet<>();
-					fromSet.remove(entity);
-					this.entities.put(event.getPreviousLocation(), fromSet);
-				}
-			}
+			if (previous != null && previous.map == this)
+				grid.remove(entity, previous);
 			entity.destroy();
 			return;
 		}
-		if (event.getCurrentLocation().map == null)
+		if (current.map == null)
 			return;
 
-		if (event.getPreviousLocation() != null) {
-			if (entity instanceof NPC) {
-				npcs.remove((NPC) entity);
-			} else {
-				HashSet fromSet = this.entities.get(event.getPreviousLocation());
-				if (fromSet == null)
-					fromSet = new HashSet<>();
-				fromSet.remove(entity);
-				this.entities.put(event.getPreviousLocation(), fromSet);
-			}
+		if (previous != null) {
+			if (previous.map == this)
+				grid.move(entity, previous, current);
+			else grid.add(entity, current);
 
-			Location previousRegionLocation = entity.getTemporary("previous_region_location", null);
+			Location previousRegionLocation = entity.get(PREVIOUS_REGION_LOCATION);
 			if (previousRegionLocation == null)
-				entity.temporary("previous_region_location", previousRegionLocation = event.getPreviousLocation());
+				entity.set(PREVIOUS_REGION_LOCATION, previousRegionLocation = previous);
 
-			int diffX = Math.abs(event.getCurrentLocation().getRegionX() - previousRegionLocation.getRegionX());
-			int diffY = Math.abs(event.getCurrentLocation().getRegionY() - previousRegionLocation.getRegionY());
+			int diffX = Math.abs(current.getRegionX() - previousRegionLocation.getRegionX());
+			int diffY = Math.abs(current.getRegionY() - previousRegionLocation.getRegionY());
 
 			if (diffX >= 5 || diffY >= 5) {
 
-				entity.temporary("previous_region_location", event.getCurrentLocation());
+				entity.set(PREVIOUS_REGION_LOCATION, current);
 				/*
 				 * Set the map region changing flag so the new map region packet is sent upon the next update.
 				 */
 				updateMapRegionChange(entity);
 			}
 
-		} else entity.create();
-		if (entity instanceof NPC) {
-			npcs.add((NPC) entity);
 		} else {
-			HashSet toSet = this.entities.get(event.getCurrentLocation());
-			if (toSet == null)
-				toSet = new HashSet<>();
-			toSet.add(entity);
-			this.entities.put(event.getCurrentLocation(), toSet);
+			entity.create();
+			grid.add(entity, current);
 		}
+		if (entity instanceof NPC && !npcs.contains(entity))
+			npcs.add((NPC) entity);
 	}
 
 	/**
 	 * Creates the chunk at the given {@code (chunkX, chunkY, chunkZ)} coordinates.
 	 * 
+	 * <p>
+	 * While chunks are streamed, this method is called by the workers of a {@code ChunkLoader}, so it
+	 * must only change this map through its methods, and set the chunk as loaded last.
+	 * 
 	 * @param chunkX
 	 *            the x coordinate to create the chunk at
 	 * @param chunkY
@@ -169,6 +222,10 @@ public abstract class RSMap extends AreaManager implements EventListener {
 	/**
 	 * Creates the chunk at the given {@code (chunkX, chunkY, chunkZ)} coordinates.
 	 * 
+	 * <p>
+	 * This method is called by {@link #getChunk(int, int, int)} without holding any lock, and may be
+	 * called for the same chunk by several threads at once, so only one of the chunks created is kept.
+	 * 
 	 * @param chunkX
 	 *            the x coordinate to create the chunk at
 	 * @param chunkY
@@ -187,27 +244,148 @@ public abstract class RSMap extends AreaManager implements EventListener {
 	public abstract void updateMapRegionChange(Entity entity);
 
 	/**
+	 * Loads every chunk within the view of the specified tile coordinates.
+	 * 
+	 * <p>
+	 * This method is effectively equivalent to:
+	 * 
+	 * <pre>
+	 * load(x, y, 0, 0);
+	 * </pre>
 	 * 
 	 * @param x
+	 *            the x tile coordinate
 	 * @param y
+	 *            the y tile coordinate
 	 */
 	public void load(int x, int y) {
-		for (int i = (x - LOAD_RADIUS - 7) >> 3; i < (x + LOAD_RADIUS + 7) >> 3; i++) {
-			for (int j = (y - LOAD_RADIUS - 7) >> 3; j < (y + LOAD_RADIUS + 7) >> 3; j++) {
-				try {
-					check(i, j);
-					for (int z = 0; z < 4; z++) {
-						Chunk c = chunks[i - this.offset.x][j - this.offset.y][z];
-						if (c == null || c.isLoaded() == false)
-							fetch(i, j, z);
-					}
-				} catch (IndexOutOfBoundsException e) {
-					// Near map edge
-				}
-			}
+		load(x, y, 0, 0);
+	}
+
+	/**
+	 * Loads every chunk within the view of the specified tile coordinates, which are being moved
+	 * towards the direction of the specified {@code (dx, dy)} deltas.
+	 * 
+	 * <p>
+	 * If chunks are streamed, no chunk is fetched by the calling thread. Every chunk that has not
+	 * been loaded is requested from the {@code ChunkLoader} of this map instead, the chunks around the
+	 * coordinates first, followed by the chunks within the view and the chunks up to
+	 * {@link #PREFETCH_CHUNKS} beyond the view in the direction of movement. Until a chunk has been
+	 * loaded, it cannot be walked on. Otherwise, every chunk within the view is fetched by the calling
+	 * thread.
+	 * 
+	 * @param x
+	 *            the x tile coordinate
+	 * @param y
+	 *            the y tile coordinate
+	 * @param dx
+	 *            the delta x of the movement, or 0 if not moving along the x-axis
+	 * @param dy
+	 *            the delta y of the movement, or 0 if not moving along the y-axis
+	 * 
+	 * @see #enableStreaming(int)
+	 */
+	public void load(int x, int y, int dx, int dy) {
+		int minX = (x - LOAD_RADIUS - 7) >> 3, maxX = (x + LOAD_RADIUS + 7) >> 3;
+		int minY = (y - LOAD_RADIUS - 7) >> 3, maxY = (y + LOAD_RADIUS + 7) >> 3;
+		ChunkLoader loader = this.loader;
+		if (loader == null) {
+			for (int i = minX; i < maxX; i++)
+				for (int j = minY; j < maxY; j++)
+					if (contains(i, j))
+						for (int z = 0; z < 4; z++)
+							if (!isLoaded(i, j, z))
+								fetch(i, j, z);
+			return;
+		}
+
+		int chunkX = x >> CHUNK_BITS, chunkY = y >> CHUNK_BITS;
+		for (int i = chunkX - 1; i <= chunkX + 1; i++)
+			for (int j = chunkY - 1; j <= chunkY + 1; j++)
+				request(loader, i, j, true);
+		for (int i = minX; i < maxX; i++)
+			for (int j = minY; j < maxY; j++)
+				request(loader, i, j, false);
+		if (dx != 0) {
+			int from = dx > 0 ? maxX : minX - PREFETCH_CHUNKS;
+			for (int i = from; i < from + PREFETCH_CHUNKS; i++)
+				for (int j = minY; j < maxY; j++)
+					request(loader, i, j, false);
+		}
+		if (dy != 0) {
+			int from = dy > 0 ? maxY : minY - PREFETCH_CHUNKS;
+			for (int j = from; j < from + PREFETCH_CHUNKS; j++)
+				for (int i = minX; i < maxX; i++)
+					request(loader, i, j, false);
 		}
 	}
 
+	/**
+	 * Requests every plane of the chunk at the specified chunk coordinates that has not been loaded
+	 * from the specified {@code loader}.
+	 */
+	private void request(ChunkLoader loader, int chunkX, int chunkY, boolean urgent) {
+		if (!contains(chunkX, chunkY))
+			return;
+		for (int z = 0; z < 4; z++)
+			if (!isLoaded(chunkX, chunkY, z))
+				loader.request(chunkX, chunkY, z, urgent);
+	}
+
+	/**
+	 * Returns {@code true} if the chunk at the specified chunk coordinates is still being streamed, in
+	 * which case it is requested ahead of every other chunk. No chunk is being streamed while
+	 * streaming is disabled, and a chunk is no longer being streamed once it has been loaded.
+	 * 
+	 * @param chunkX
+	 *            the x coordinate of the chunk
+	 * @param chunkY
+	 *            the y coordinate of the chunk
+	 * @param chunkZ
+	 *            the z coordinate of the chunk
+	 * @return true if the chunk is being streamed; return false otherwise
+	 * 
+	 * @see #enableStreaming(int)
+	 */
+	public boolean isStreaming(int chunkX, int chunkY, int chunkZ) {
+		ChunkLoader loader = this.loader;
+		if (loader == null || !contains(chunkX, chunkY) || isLoaded(chunkX, chunkY, chunkZ))
+			return false;
+		loader.request(chunkX, chunkY, chunkZ, true);
+		return true;
+	}
+
+	/**
+	 * Streams the chunks of this {@code RSMap} on the specified amount of {@code workers}, so
+	 * {@link #load(int, int, int, int)} never fetches a chunk on the calling thread. Streaming chunks
+	 * again while they are already streamed does nothing.
+	 * 
+	 * @param workers
+	 *            the amount of workers fetching chunks
+	 */
+	public synchronized void enableStreaming(int workers) {
+		if (loader == null)
+			loader = new ChunkLoader(this, workers);
+	}
+
+	/**
+	 * Stops streaming the chunks of this {@code RSMap}, so every chunk is fetched by the thread
+	 * loading it again.
+	 */
+	public synchronized void disableStreaming() {
+		if (loader == null)
+			return;
+		loader.shutdown();
+		loader = null;
+	}
+
+	/**
+	 * Returns {@code true} if the specified chunk coordinates are within the bounds of this map.
+	 */
+	private boolean contains(int chunkX, int chunkY) {
+		return Integer.compareUnsigned(chunkX - offset.x, width >> CHUNK_BITS) < 0 && Integer.compareUnsigned(chunkY - offset.y, height >> CHUNK_BITS) < 0;
+	}
+
 	/**
 	 * Checks if the chunks at the specified ({@code (cx, cy)} coordinates have been defined; if not,
 	 * then they are.
@@ -219,17 +397,58 @@ public abstract class RSMap extends AreaManager implements EventListener {
 	 */
 	protected void check(int chunkX, int chunkY) {
 		try {
-			if (this.chunks[chunkX - this.offset.x] == null)
-				this.chunks[chunkX - this.offset.x] = new Chunk[height >> CHUNK_BITS][];
-			if (this.chunks[chunkX - this.offset.x][chunkY - this.offset.y] == null)
-				this.chunks[chunkX - this.offset.x][chunkY - this.offset.y] = new Chunk[4];
+			Chunk[][] row = this.chunks[chunkX - this.offset.x];
+			if (row != null && row[chunkY - this.offset.y] != null)
+				return;
+			synchronized (this.chunks) {
+				if (this.chunks[chunkX - this.offset.x] == null)
+					this.chunks[chunkX - this.offset.x] = new Chunk[height >> CHUNK_BITS][];
+				if (this.chunks[chunkX - this.offset.x][chunkY - this.offset.y] == null)
+					this.chunks[chunkX - this.offset.x][chunkY - this.offset.y] = new Chunk[4];
+			}
 		} catch (Exception e) {}
 	}
 
+	/**
+	 * Returns the column holding every plane of the chunk at the specified chunk coordinates, or null
+	 * if the coordinates are out of bounds.
+	 */
+	private Chunk[] column(int chunkX, int chunkY, int chunkZ) {
+		try {
+			check(chunkX, chunkY);
+			Chunk[] column = chunks[chunkX - this.offset.x][chunkY - this.offset.y];
+			Objects.checkIndex(chunkZ, column.length);
+			return column;
+		} catch (IndexOutOfBoundsException | NullPointerException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the lock publishing the chunks of the region containing the specified chunk
+	 * coordinates, which must be within the bounds of this map.
+	 */
+	private Object lockOf(int chunkX, int chunkY) {
+		return locks[regionIndex((chunkX << CHUNK_BITS) - baseX, (chunkY << CHUNK_BITS) - baseY, 0)];
+	}
+
+	/**
+	 * Returns the key of the clip changes deferred to the chunk at the specified chunk coordinates.
+	 */
+	private int keyOf(int chunkX, int chunkY, int chunkZ) {
+		return ((chunkX - this.offset.x) * (height >> CHUNK_BITS) + chunkY - this.offset.y) << 2 | chunkZ;
+	}
+
 	/**
 	 * Fetches the chunk at the given chunk coordinates. A chunk coordinate is a normal coordinate
 	 * bitshifted right by WorldMap.CHUNK_BITS. (Eg pos.x >> WorldMap.CHUNK_BITS)
 	 * 
+	 * <p>
+	 * A chunk that has not been created yet is decoded by the calling thread without holding any
+	 * lock, and only placed and published under the lock of its region. If another thread publishes
+	 * the same chunk in the meantime, the decoded chunk is discarded and the published one returned.
+	 * Every clip change deferred to the chunk is applied before it is published.
+	 * 
 	 * @param chunkX
 	 *            The chunk X
 	 * @param chunkY
@@ -237,26 +456,67 @@ public abstract class RSMap extends AreaManager implements EventListener {
 	 * @return the chunk, null if out of bounds.
 	 */
 	public Chunk getChunk(int chunkX, int chunkY, int chunkZ) {
-		try {
-			check(chunkX, chunkY);
-
-			Chunk c = chunks[chunkX - this.offset.x][chunkY - this.offset.y][chunkZ];
-			if (c == null) {
-				c = create(chunkX, chunkY, chunkZ);
-				if (c == null)
-					c = new Chunk(0, 0, 0);
-				chunks[chunkX][chunkY][chunkZ] = c;
-				return c;
-			}
+		Chunk[] column = column(chunkX, chunkY, chunkZ);
+		if (column == null)
+			return null;
+		Chunk c = (Chunk) CHUNK.getAcquire(column, chunkZ);
+		if (c != null)
 			return c;
-		} catch (IndexOutOfBoundsException e) {
+
+		boolean precomputed = isLoaded(chunkX, chunkY, chunkZ);
+		Chunk created = precomputed ? null : create(chunkX, chunkY, chunkZ);
+		if (created == null)
+			created = new Chunk(chunkX, chunkY, chunkZ);
+		synchronized (lockOf(chunkX, chunkY)) {
+			c = column[chunkZ];
+			if (c != null)
+				return c; // Published by another thread while decoding
+			place(created, chunkX, chunkY, chunkZ);
+			if (precomputed)
+				created.setLoaded(true); // The chunk keeps the values copied from the collision file
+			List<ClipChange> changes = deferred.remove(keyOf(chunkX, chunkY, chunkZ));
+			if (changes != null)
+				for (ClipChange change : changes)
+					change.apply(created);
+			CHUNK.setRelease(column, chunkZ, created);
+		}
+		return created;
+	}
+
+	/**
+	 * Returns the chunk published at the specified tile coordinates to change the clip of. A chunk
+	 * which has neither been published nor precomputed is never decoded by the calling thread; the
+	 * change is deferred until the chunk is published instead, and the chunk is requested ahead of
+	 * every other chunk while streaming.
+	 * 
+	 * @return the chunk to change, or null if out of bounds or the change has been deferred
+	 */
+	private Chunk changing(int x, int y, int z, int clip, boolean add) {
+		int chunkX = x >> CHUNK_BITS, chunkY = y >> CHUNK_BITS;
+		Chunk[] column = column(chunkX, chunkY, z);
+		if (column == null)
 			return null;
+		Chunk c = (Chunk) CHUNK.getAcquire(column, z);
+		if (c != null)
+			return c;
+		if (isLoaded(chunkX, chunkY, z))
+			return getChunk(chunkX, chunkY, z); // Precomputed, so it is placed without being decoded
+
+		synchronized (lockOf(chunkX, chunkY)) {
+			c = column[z];
+			if (c != null)
+				return c;
+			deferred.computeIfAbsent(keyOf(chunkX, chunkY, z), k -> new ArrayList<>()).add(new ClipChange(x & (CHUNK_SIZE - 1), y & (CHUNK_SIZE - 1), clip, add));
 		}
+		ChunkLoader loader = this.loader;
+		if (loader != null)
+			loader.request(chunkX, chunkY, z, true);
+		return null;
 	}
 
 	/**
 	 * Adds the given clip to the given location in this map. If the location is out of bounds, then the
-	 * function returns. If the chunk is null, it returns.
+	 * function returns. If the chunk has not been loaded, the clip is added once it has been.
 	 * 
 	 * @param x
 	 *            the x tile coordinate
@@ -268,22 +528,16 @@ public abstract class RSMap extends AreaManager implements EventListener {
 	 *            the clip to add
 	 */
 	public void addClip(int x, int y, int z, int clip) {
-		try {
-			int chunkX = x >> CHUNK_BITS;
-			int chunkY = y >> CHUNK_BITS;
-
-			Chunk c = getChunk(chunkX, chunkY, z);
-			if (c == null)
-				return;
-			c.addClip(x % CHUNK_SIZE, y % CHUNK_SIZE, clip);
-		} catch (ArrayIndexOutOfBoundsException e) {
-
-		}
+		Chunk c = changing(x, y, z, clip, true);
+		if (c == null)
+			return;
+		c.addClip(x & (CHUNK_SIZE - 1), y & (CHUNK_SIZE - 1), clip);
 	}
 
 	/**
 	 * The opposite of addClip(). Removes the given clip at the given location on this map. If the
-	 * location is out of bounds, then the function returns. If the chunk is null, it returns.
+	 * location is out of bounds, then the function returns. If the chunk has not been loaded, the clip
+	 * is removed once it has been.
 	 * 
 	 * @param x
 	 *            the x tile coordinate
@@ -295,23 +549,16 @@ public abstract class RSMap extends AreaManager implements EventListener {
 	 *            the clip to remove.
 	 */
 	public void removeClip(int x, int y, int z, int clip) {
-		try {
-			int chunkX = x >> CHUNK_BITS;
-			int chunkY = y >> CHUNK_BITS;
-
-			Chunk c = getChunk(chunkX, chunkY, z);
-			if (c == null)
-				return; // No chunk there.
-			c.removeClip(x % CHUNK_SIZE, y % CHUNK_SIZE, clip);
-		} catch (Exception e) {
-			e.printStackTrace();
-		}
+		Chunk c = changing(x, y, z, clip, false);
+		if (c == null)
+			return; // No chunk there, or deferred until there is.
+		c.removeClip(x & (CHUNK_SIZE - 1), y & (CHUNK_SIZE - 1), clip);
 	}
 
 	/**
 	 * Fetches the clip at the given location on the map. If the given location is out of bounds, or the
-	 * chunk at that position is null, -1 (0xFFFF FFFF) is returned, meaning there cannot be movement on
-	 * that tile.
+	 * chunk at that position has not been loaded, 0 is returned. The clip is read from the flat array
+	 * of the {@code MapRegion} containing the location, without reaching its {@code Chunk}.
 	 * 
 	 * @param x
 	 *            the x tile coordinate
@@ -322,18 +569,14 @@ public abstract class RSMap extends AreaManager implements EventListener {
 	 * @return clip the clip
 	 */
 	public int getClip(int x, int y, int z) {
-		try {
-			int chunkX = x >> CHUNK_BITS;
-			int chunkY = y >> CHUNK_BITS;
-			check(chunkX, chunkY);
-
-			Chunk c = chunks[chunkX - this.offset.x][chunkY - this.offset.y][z];
-			if (c == null || c.isLoaded() == false)
-				return 0;
-			return c.getClip(x & 7, y & 7);
-		} catch (Exception e) {
+		int localX = x - baseX, localY = y - baseY;
+		int index = regionIndex(localX, localY, z);
+		if (index == -1)
 			return 0;
-		}
+		MapRegion region = regions[index];
+		if (region != null)
+			return region.getClip(localX & (MapRegion.SIZE - 1), localY & (MapRegion.SIZE - 1), z);
+		return collision == null ? 0 : collision.getClip(index, localX & (MapRegion.SIZE - 1), localY & (MapRegion.SIZE - 1), z);
 	}
 
 	/**
@@ -348,38 +591,84 @@ public abstract class RSMap extends AreaManager implements EventListener {
 	 * @return the flags at the specified coordinates
 	 */
 	public int getFlags(int x, int y, int z) {
-		try {
-			int chunkX = x >> CHUNK_BITS;
-			int chunkY = y >> CHUNK_BITS;
-			check(chunkX, chunkY);
-
-			Chunk c = chunks[chunkX - this.offset.x][chunkY - this.offset.y][z];
-			if (c == null || c.isLoaded() == false)
-				return 0;
-			return c.getFlags(x & 7, y & 7);
-		} catch (ArrayIndexOutOfBoundsException e) {
+		int localX = x - baseX, localY = y - baseY;
+		int index = regionIndex(localX, localY, z);
+		if (index == -1)
 			return 0;
+		MapRegion region = regions[index];
+		if (region != null)
+			return region.getFlags(localX & (MapRegion.SIZE - 1), localY & (MapRegion.SIZE - 1), z);
+		return collision == null ? 0 : collision.getFlags(index, localX & (MapRegion.SIZE - 1), localY & (MapRegion.SIZE - 1), z);
+	}
+
+	/**
+	 * Returns {@code true} if the chunk at the specified chunk coordinates has been loaded, either on
+	 * this map or within the collision file of this map.
+	 * 
+	 * @param chunkX
+	 *            the x coordinate of the chunk
+	 * @param chunkY
+	 *            the y coordinate of the chunk
+	 * @param chunkZ
+	 *            the z coordinate of the chunk
+	 * @return true if loaded; return false otherwise
+	 */
+	public boolean isLoaded(int chunkX, int chunkY, int chunkZ) {
+		int localX = (chunkX << CHUNK_BITS) - baseX, localY = (chunkY << CHUNK_BITS) - baseY;
+		int index = regionIndex(localX, localY, chunkZ);
+		if (index == -1)
+			return false;
+		MapRegion region = regions[index];
+		if (region != null)
+			return region.isLoaded(localX & (MapRegion.SIZE - 1), localY & (MapRegion.SIZE - 1), chunkZ);
+		return collision != null && collision.isLoaded(index, localX & (MapRegion.SIZE - 1), localY & (MapRegion.SIZE - 1), chunkZ);
+	}
+
+	/**
+	 * Returns the index of the {@code MapRegion} containing the specified tile coordinates, relative
+	 * to the offset of this map, or -1 if they are out of bounds.
+	 */
+	private int regionIndex(int localX, int localY, int z) {
+		int regionX = localX >> MapRegion.BITS, regionY = localY >> MapRegion.BITS;
+		if (Integer.compareUnsigned(regionX, regionsWide) >= 0 || Integer.compareUnsigned(regionY, regionsHigh) >= 0 || Integer.compareUnsigned(z, 4) >= 0)
+			return -1;
+		return regionX * regionsHigh + regionY;
+	}
+
+	/**
+	 * Places the specified {@code chunk} at the specified chunk coordinates within the
+	 * {@code MapRegion} containing it, creating the region if needed. A region created within the
+	 * bounds of the collision file of this map is copied from it first, so it is only changed on the
+	 * heap.
+	 */
+	private void place(Chunk chunk, int chunkX, int chunkY, int chunkZ) {
+		int localX = (chunkX << CHUNK_BITS) - baseX, localY = (chunkY << CHUNK_BITS) - baseY;
+		int index = regionIndex(localX, localY, chunkZ);
+		if (index == -1)
+			return;
+		MapRegion region = regions[index];
+		if (region == null) {
+			region = new MapRegion();
+			if (collision != null)
+				collision.copy(index, region);
+			regions[index] = region;
 		}
+		chunk.place(region, localX & (MapRegion.SIZE - 1), localY & (MapRegion.SIZE - 1), chunkZ);
 	}
 
 	/**
 	 * Finds any {@code Entity} of the given class type within the specified {@code bounds} and returns
 	 * a {@code HashSet} of the entities found.
 	 * 
-	 * @param from
-	 * @param to
-	 * @return
+	 * @param bounds
+	 *            the bounds to search for entities within
+	 * @param clazz
+	 *            the class type of the entities
+	 * @return a {@code HashSet} with any entities with the given class type within the bounds
 	 */
 	public <T extends Entity> HashSet<T> findEntities(Shape3D bounds, Class<T> clazz) {
 		HashSet<T> found = new HashSet<>();
-		for (Point3D point : bounds.listPoints()) {
-			HashSet<T> set = (HashSet<T>) entities.get(point);
-			for (T t : set) {
-				if (clazz.isInstance(t)) {
-					found.add(t);
-				}
-			}
-		}
+		grid.forEachWithin(bounds, clazz, found::add);
 		return found;
 	}
 
@@ -396,21 +685,42 @@ public abstract class RSMap extends AreaManager implements EventListener {
 	 */
 	public <T> HashSet<T> findEntities(Point3D location, Class<T> clazz, int radius) {
 		HashSet<T> found = new HashSet<>();
-		for (int i = -radius; i <= radius; i++) {
-			for (int j = -radius; j <= radius; j++) {
-				HashSet<T> set = (HashSet<T>) entities.get(location.translate(i, j, 0));
-				if (set != null) {
-					for (T t : set) {
-						if (clazz.isInstance(t)) {
-							found.add(t);
-						}
-					}
-				}
-			}
-		}
+		forEachEntity(location, radius, clazz, found::add);
 		return found;
 	}
 
+	/**
+	 * Performs the specified {@code action} for any {@code Entity} of the given class type within the
+	 * specified {@code radius} of the {@code location}, without collecting them.
+	 * 
+	 * @param location
+	 *            the location of search for entities around
+	 * @param radius
+	 *            the radius of the location to search around
+	 * @param clazz
+	 *            the class type of the entities
+	 * @param action
+	 *            the action to perform for each entity found
+	 */
+	public <T> void forEachEntity(Point3D location, int radius, Class<T> clazz, Consumer<? super T> action) {
+		grid.forEachWithin(location.z, location.x - radius, location.y - radius, location.x + radius, location.y + radius, clazz, action);
+	}
+
+	/**
+	 * Performs the specified {@code action} for any {@code Entity} of the given class type within the
+	 * specified {@code bounds}, without collecting them.
+	 * 
+	 * @param bounds
+	 *            the bounds to search for entities within
+	 * @param clazz
+	 *            the class type of the entities
+	 * @param action
+	 *            the action to perform for each entity found
+	 */
+	public <T> void forEachEntity(Shape3D bounds, Class<T> clazz, Consumer<? super T> action) {
+		grid.forEachWithin(bounds, clazz, action);
+	}
+
 	public EntityList<NPC> getNPCS() {
 		return npcs;
 	}
@@ -428,4 +738,25 @@ public abstract class RSMap extends AreaManager implements EventListener {
 		return world;
 	}
 
+	/**
+	 * A change to the clip of a chunk which is applied once the chunk has been published.
+	 */
+	private static final class ClipChange {
+		private final int x, y; // The coordinates of the change within its chunk
+		private final int clip;
+		private final boolean add; // True if the clip is added, false if removed
+
+		ClipChange(int x, int y, int clip, boolean add) {
+			this.x = x;
+			this.y = y;
+			this.clip = clip;
+			this.add = add;
+		}
+
+		void apply(Chunk chunk) {
+			if (add)
+				chunk.addClip(x, y, clip);
+			else chunk.removeClip(x, y, clip);
+		}
+	}
 }
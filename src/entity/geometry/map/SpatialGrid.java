@@ -0,0 +1,202 @@
+package entity.geometry.map;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import entity.Entity;
+import entity.geometry.Location;
+import entity.geometry.Point3D;
+import entity.geometry.Shape3D;
+
+/**
+ * The {@code SpatialGrid} class holds every {@code Entity} of an {@code RSMap} within the chunk of
+ * its location. Each occupied chunk holds a dense array of its entities, and is found by its packed
+ * chunk coordinates within an open addressing table, so neither adding, moving nor finding an
+ * {@code Entity} creates any object per tile.
+ * 
+ * <p>
+ * A query visits every chunk overlapping its bounds, and checks the exact location of each
+ * {@code Entity} within them. A {@code SpatialGrid} is not thread safe; it is only modified by the
+ * {@code RSMap} holding it while an {@code EntityLocationChangeEvent} is called.
+ * 
+ * @author Albert Beaupre
+ * 
+ * @see entity.geometry.map.RSMap
+ */
+final class SpatialGrid {
+
+	private static final int EMPTY = -1; // The key of an unused table slot
+
+	private int[] keys; // The packed chunk coordinates of each slot
+	private Cell[] cells; // The cell of each slot
+	private int occupied; // The amount of used slots
+
+	/**
+	 * Constructs a new, empty {@code SpatialGrid}.
+	 */
+	SpatialGrid() {
+		this.keys = new int[256];
+		this.cells = new Cell[256];
+		Arrays.fill(keys, EMPTY);
+	}
+
+	/**
+	 * Packs the specified chunk coordinates into a single key.
+	 */
+	private static int key(int chunkX, int chunkY, int z) {
+		return (z & 0x3) << 28 | (chunkX & 0x3FFF) << 14 | chunkY & 0x3FFF;
+	}
+
+	/**
+	 * Adds the specified {@code entity} to the chunk of the specified {@code location}.
+	 */
+	void add(Entity entity, Location location) {
+		cell(key(location.x >> RSMap.CHUNK_BITS, location.y >> RSMap.CHUNK_BITS, location.z), true).add(entity);
+	}
+
+	/**
+	 * Removes the specified {@code entity} from the chunk of the specified {@code location}.
+	 */
+	void remove(Entity entity, Location location) {
+		Cell cell = cell(key(location.x >> RSMap.CHUNK_BITS, location.y >> RSMap.CHUNK_BITS, location.z), false);
+		if (cell != null)
+			cell.remove(entity);
+	}
+
+	/**
+	 * Moves the specified {@code entity} from the chunk of the specified {@code from} location to the
+	 * chunk of the specified {@code to} location, if they differ.
+	 */
+	void move(Entity entity, Location from, Location to) {
+		int fromKey = key(from.x >> RSMap.CHUNK_BITS, from.y >> RSMap.CHUNK_BITS, from.z);
+		int toKey = key(to.x >> RSMap.CHUNK_BITS, to.y >> RSMap.CHUNK_BITS, to.z);
+		if (fromKey == toKey)
+			return;
+		Cell cell = cell(fromKey, false);
+		if (cell != null)
+			cell.remove(entity);
+		cell(toKey, true).add(entity);
+	}
+
+	/**
+	 * Performs the specified {@code action} for every {@code Entity} of the specified {@code clazz}
+	 * located on the specified {@code plane} within the specified inclusive bounds.
+	 */
+	<T> void forEachWithin(int plane, int minX, int minY, int maxX, int maxY, Class<T> clazz, Consumer<? super T> action) {
+		for (int chunkX = minX >> RSMap.CHUNK_BITS; chunkX <= maxX >> RSMap.CHUNK_BITS; chunkX++) {
+			for (int chunkY = minY >> RSMap.CHUNK_BITS; chunkY <= maxY >> RSMap.CHUNK_BITS; chunkY++) {
+				Cell cell = cell(key(chunkX, chunkY, plane), false);
+				if (cell == null)
+					continue;
+				for (int i = cell.size - 1; i >= 0; i--) {
+					Entity entity = cell.entities[i];
+					Location location = entity.getLocation();
+					if (location == null || location.x < minX || location.x > maxX || location.y < minY || location.y > maxY)
+						continue;
+					if (clazz.isInstance(entity))
+						action.accept(clazz.cast(entity));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Performs the specified {@code action} for every {@code Entity} of the specified {@code clazz}
+	 * located within the specified {@code bounds}, visiting only the chunks overlapping the bounding
+	 * box of the {@code bounds}.
+	 */
+	<T> void forEachWithin(Shape3D bounds, Class<T> clazz, Consumer<? super T> action) {
+		int[] box = AreaIndex.boundingBox(bounds);
+		if (box == null)
+			return;
+		for (int plane = Math.max(box[4], 0); plane <= Math.min(box[5], 3); plane++) {
+			forEachWithin(plane, box[0], box[1], box[2], box[3], Entity.class, entity -> {
+				if (clazz.isInstance(entity) && bounds.contains(entity.getLocation()))
+					action.accept(clazz.cast(entity));
+			});
+		}
+	}
+
+	/**
+	 * Returns the amount of entities within the chunk of the specified {@code location}.
+	 */
+	int count(Point3D location) {
+		Cell cell = cell(key(location.x >> RSMap.CHUNK_BITS, location.y >> RSMap.CHUNK_BITS, location.z), false);
+		return cell == null ? 0 : cell.size;
+	}
+
+	/**
+	 * Returns the cell of the specified {@code key}, creating it if {@code create} is true and it does
+	 * not exist yet.
+	 */
+	private Cell cell(int key, boolean create) {
+		int mask = keys.length - 1;
+		int slot = mix(key) & mask;
+		while (keys[slot] != EMPTY) {
+			if (keys[slot] == key)
+				return cells[slot];
+			slot = (slot + 1) & mask;
+		}
+		if (!create)
+			return null;
+		if ((occupied + 1) * 4 > keys.length * 3) {
+			grow();
+			return cell(key, true);
+		}
+		keys[slot] = key;
+		occupied++;
+		return cells[slot] = new Cell();
+	}
+
+	/**
+	 * Doubles the size of the table, keeping every cell once created so its array is reused when an
+	 * {@code Entity} enters the chunk again.
+	 */
+	private void grow() {
+		int[] oldKeys = keys;
+		Cell[] oldCells = cells;
+		keys = new int[oldKeys.length * 2];
+		cells = new Cell[oldCells.length * 2];
+		Arrays.fill(keys, EMPTY);
+		int mask = keys.length - 1;
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] == EMPTY)
+				continue;
+			int slot = mix(oldKeys[i]) & mask;
+			while (keys[slot] != EMPTY)
+				slot = (slot + 1) & mask;
+			keys[slot] = oldKeys[i];
+			cells[slot] = oldCells[i];
+		}
+	}
+
+	private static int mix(int key) {
+		int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * Holds every {@code Entity} within a single chunk in a dense array.
+	 */
+	private static final class Cell {
+
+		private Entity[] entities = new Entity[4];
+		private int size;
+
+		private void add(Entity entity) {
+			if (size == entities.length)
+				entities = Arrays.copyOf(entities, size * 2);
+			entities[size++] = entity;
+		}
+
+		private void remove(Entity entity) {
+			for (int i = 0; i < size; i++) {
+				if (entities[i] == entity) {
+					entities[i] = entities[--size];
+					entities[size] = null;
+					return;
+				}
+			}
+		}
+	}
+}
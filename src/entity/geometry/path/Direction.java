@@ -1,6 +1,7 @@
 package entity.geometry.path;
 
 import entity.geometry.Location;
+import entity.geometry.map.RSMap;
 
 /**
  * @author netherfoam
@@ -47,11 +48,16 @@ public abstract class Direction {
 	}
 
 	/**
+	 * Returns the clip conflicting with walking this direction from the given location. While the
+	 * chunks of the map are streamed, walking into a chunk that has not been loaded yet always
+	 * conflicts, and the chunk is requested ahead of every other chunk.
 	 * 
 	 * @param from
 	 * @return
 	 */
 	public final int conflict(Location from) {
+		if (from.map.isStreaming((from.x + dx) >> RSMap.CHUNK_BITS, (from.y + dy) >> RSMap.CHUNK_BITS, from.z))
+			return -1; // Blocked until the chunk has been loaded
 		return conflictTo(from) + conflictFrom(from);
 	}
 
@@ -0,0 +1,29 @@
+package event;
+
+/**
+ * The {@code AsyncEvent} interface marks an {@code Event} that can be called asynchronously. Once
+ * the asynchronous mode of an {@code EventManager} has been enabled, any {@code Event} implementing
+ * this interface is executed on a worker thread instead of the thread calling it, so a slow
+ * {@code EventListener} cannot block the caller.
+ * 
+ * <p>
+ * Every {@code AsyncEvent} with an equal key is executed by the same worker in the order it was
+ * called. Because the {@code Event} may not have been executed yet once {@link Event#call()}
+ * returns, the caller cannot check whether it has been consumed or cancelled; an {@code Event}
+ * whose caller depends on those flags should not implement this interface.
+ * 
+ * @author Albert Beaupre
+ * 
+ * @see event.EventManager#enableAsync(int, int)
+ */
+public interface AsyncEvent {
+
+	/**
+	 * Returns the key ordering this {@code AsyncEvent} against any other {@code AsyncEvent} with an
+	 * equal key, such as the player or channel it belongs to, or null if it does not need to be
+	 * ordered.
+	 * 
+	 * @return the ordering key, or null if unordered
+	 */
+	Object getAsyncKey();
+}
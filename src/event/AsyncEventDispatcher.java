@@ -0,0 +1,211 @@
+package event;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import infrastructure.CoreThread;
+
+/**
+ * The {@code AsyncEventDispatcher} class executes every {@code AsyncEvent} called on an
+ * {@code EventManager} across a fixed amount of workers.
+ * 
+ * <p>
+ * Each worker has its own bounded queue. An {@code AsyncEvent} is queued to the worker selected by
+ * its key, so events with an equal key are executed one after another in the order they were
+ * called. An {@code AsyncEvent} is never executed ahead of the events already queued for its key:
+ * once the queue of a worker is full, the calling thread waits up to {@link #OVERFLOW_TIMEOUT}
+ * milliseconds for space, after which the event is dropped and counted by
+ * {@link #getDropped()} and by the {@code EventMetrics} of the {@code EventManager}, if any. A
+ * worker never waits, since two workers could end up waiting for each other, so an
+ * {@code AsyncEvent} a worker calls onto a full queue is dropped at once.
+ * 
+ * <p>
+ * A pooled {@code Event} is retained while it is queued, and released by its worker once it has been
+ * executed, or as soon as it is dropped. Once shut down, a worker executes every event still queued
+ * to it before it exits; only then is an {@code AsyncEvent} for that worker executed by the calling
+ * thread, so it is never lost, left retained, or executed ahead of the events queued before it. The
+ * workers of a dispatcher replacing one being shut down wait for its workers to exit before they
+ * execute any event.
+ * 
+ * @author Albert Beaupre
+ * 
+ * @see event.AsyncEvent
+ */
+final class AsyncEventDispatcher {
+
+	/**
+	 * The milliseconds a thread waits for space within the full queue of a worker before the event
+	 * it is calling is dropped.
+	 */
+	static final long OVERFLOW_TIMEOUT = 20;
+
+	private static final Event SHUTDOWN = new Event() {}; // Queued to wake a worker up once shut down
+
+	private final EventManager manager;
+	private final Worker[] workers;
+	private final AtomicInteger unordered = new AtomicInteger(); // Selects the worker of unordered events
+	private final LongAdder dropped = new LongAdder(); // The events dropped because a queue was full
+	private final AtomicInteger alive; // The workers that have not exited yet
+	private final AsyncEventDispatcher previous; // The dispatcher replaced by this one, or null
+	private volatile boolean running = true;
+
+	/**
+	 * Constructs a new {@code AsyncEventDispatcher} executing events for the specified
+	 * {@code manager} on the specified amount of {@code workers}, each with a queue of the specified
+	 * {@code capacity}, once every worker of the specified {@code previous} dispatcher has exited.
+	 */
+	AsyncEventDispatcher(EventManager manager, int workers, int capacity, AsyncEventDispatcher previous) {
+		if (workers < 1)
+			throw new IllegalArgumentException("An AsyncEventDispatcher must have at least 1 worker");
+		if (capacity < 1)
+			throw new IllegalArgumentException("The capacity of an AsyncEventDispatcher must be at least 1");
+		this.manager = manager;
+		this.previous = previous;
+		this.alive = new AtomicInteger(workers);
+		this.workers = new Worker[workers];
+		for (int i = 0; i < workers; i++) {
+			this.workers[i] = new Worker(i, capacity);
+			this.workers[i].start();
+		}
+	}
+
+	/**
+	 * Queues the specified {@code event} to the worker selected by its key, or drops it if the queue
+	 * of the worker stays full. Returns false if the worker has already exited, in which case every
+	 * event queued to it has been executed and the {@code event} must be executed by the calling
+	 * thread.
+	 * 
+	 * @param event
+	 *            the event to queue
+	 * @return true if the event was queued or dropped; return false otherwise
+	 */
+	boolean dispatch(Event event) {
+		Object key = ((AsyncEvent) event).getAsyncKey();
+		int index;
+		if (key == null) {
+			index = Math.floorMod(unordered.getAndIncrement(), workers.length);
+		} else {
+			index = Math.floorMod(key.hashCode() * 0x9E3779B9 >>> 16, workers.length);
+		}
+		Worker worker = workers[index];
+		Thread current = Thread.currentThread();
+		boolean own = current == worker;
+
+		event.retain();
+		synchronized (worker) {
+			if (!worker.exited || own) {
+				boolean queued;
+				try {
+					queued = current instanceof Worker ? worker.queue.offer(event) : worker.queue.offer(event, OVERFLOW_TIMEOUT, TimeUnit.MILLISECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					queued = false;
+				}
+				if (!queued) {
+					dropped.increment();
+					EventMetrics metrics = manager.getMetrics();
+					if (metrics != null)
+						metrics.drop(event);
+					event.release();
+				}
+				return true;
+			}
+		}
+		event.release();
+		return false;
+	}
+
+	/**
+	 * Returns the amount of events dropped because the queue of their worker stayed full.
+	 * 
+	 * @return the amount of dropped events
+	 */
+	long getDropped() {
+		return dropped.sum();
+	}
+
+	/**
+	 * Returns {@code true} if this dispatcher has not been shut down.
+	 * 
+	 * @return true if running; return false otherwise
+	 */
+	boolean isRunning() {
+		return running;
+	}
+
+	/**
+	 * Waits for every worker of this dispatcher to exit.
+	 */
+	private void awaitExit() {
+		for (Worker worker : workers) {
+			while (worker.isAlive()) {
+				try {
+					worker.join();
+				} catch (InterruptedException e) {
+					continue;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Stops every worker once it has executed the events queued to it. The workers are not
+	 * interrupted, so an event being executed is never disturbed.
+	 */
+	void shutdown() {
+		running = false;
+		for (Worker worker : workers)
+			worker.queue.offer(SHUTDOWN);
+	}
+
+	/**
+	 * Executes every event queued to it, one after another.
+	 */
+	private final class Worker extends CoreThread {
+
+		private final LinkedBlockingQueue<Event> queue;
+		private boolean exited; // True once shut down and every event queued has been taken, guarded by this
+
+		private Worker(int index, int capacity) {
+			super("Async Event Worker[" + index + "]", Thread.NORM_PRIORITY, true);
+			this.queue = new LinkedBlockingQueue<>(capacity);
+		}
+
+		@Override
+		public void run() {
+			if (previous != null)
+				previous.awaitExit();
+
+			Event event;
+			while (running) {
+				try {
+					event = queue.poll(100, TimeUnit.MILLISECONDS); // Also wakes up if SHUTDOWN did not fit
+				} catch (InterruptedException e) {
+					continue;
+				}
+				if (event != null && event != SHUTDOWN)
+					execute(event);
+			}
+			synchronized (this) {
+				exited = true;
+				while ((event = queue.poll()) != null)
+					if (event != SHUTDOWN)
+						execute(event);
+			}
+			if (alive.decrementAndGet() == 0)
+				manager.exited(AsyncEventDispatcher.this);
+		}
+
+		private void execute(Event event) {
+			try {
+				manager.dispatch(event);
+			} catch (Exception e) {
+				e.printStackTrace();
+			} finally {
+				event.release();
+			}
+		}
+	}
+}
@@ -15,4 +15,9 @@ public class ConsumerExecutor<T extends Event> extends EventExecutor {
 	public void execute(Event event) {
 		this.consumer.accept((T) event);
 	}
+
+	@Override
+	public String describe() {
+		return consumer.getClass().getName();
+	}
 }
@@ -0,0 +1,186 @@
+package event;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+import entity.Entity;
+import entity.EntityList;
+
+/**
+ * The {@code EntityExecutors} class holds the executors listening for a single {@code EntityEvent}
+ * class on specific entities, by the {@code EntityList} each {@code Entity} was last added to and
+ * its index within it. Every executor is held with its {@code Entity} and only executed for an event
+ * of that exact {@code Entity}, as another {@code Entity} can be given the index of one that has
+ * been removed. The executors of an {@code Entity} are moved along with it once it is added to an
+ * {@code EntityList}, and are only ever removed once unregistered by their
+ * {@code EventSubscription}.
+ * 
+ * <p>
+ * Every array is sorted from the highest priority to the lowest and is never modified once stored,
+ * in the same way as the executors of an {@code EventManager}.
+ * 
+ * @author Albert Beaupre
+ */
+final class EntityExecutors {
+
+	static final EntityExecutor[] NO_EXECUTORS = new EntityExecutor[0];
+
+	private static final Object UNLISTED = new Object(); // The key of every Entity never added to an EntityList
+
+	private final ConcurrentHashMap<Object, EntityExecutor[][]> byList = new ConcurrentHashMap<>(); // The executors by list, then index
+
+	/**
+	 * Returns the executors listening on the entities of the {@code EntityList} and index of the
+	 * specified {@code entity}, which must still be matched against the {@code Entity} of the event.
+	 */
+	EntityExecutor[] get(Entity entity) {
+		EntityExecutor[][] byIndex = byList.get(keyOf(entity.getList()));
+		int index = entity.getIndex();
+		if (byIndex == null || index < 0 || index >= byIndex.length)
+			return NO_EXECUTORS;
+		EntityExecutor[] executors = byIndex[index];
+		return executors == null ? NO_EXECUTORS : executors;
+	}
+
+	/**
+	 * Inserts the specified {@code executor} after every executor of the list and index of its
+	 * {@code Entity} with the same or a higher priority, leaving out any unregistered executor.
+	 */
+	synchronized void add(EntityExecutor executor) {
+		Object key = keyOf(executor.entity.getList());
+		int index = Math.max(executor.entity.getIndex(), 0);
+		EntityExecutor[][] byIndex = byList.get(key);
+		if (byIndex == null)
+			byIndex = new EntityExecutor[index + 1][];
+		else if (index >= byIndex.length)
+			byIndex = Arrays.copyOf(byIndex, Math.max(index + 1, byIndex.length * 2));
+		else
+			byIndex = byIndex.clone();
+
+		EntityExecutor[] executors = byIndex[index] == null ? NO_EXECUTORS : purge(byIndex[index]);
+		int position = executors.length;
+		while (position > 0 && executors[position - 1].getPriority().ordinal() < executor.getPriority().ordinal())
+			position--;
+		EntityExecutor[] updated = new EntityExecutor[executors.length + 1];
+		System.arraycopy(executors, 0, updated, 0, position);
+		updated[position] = executor;
+		System.arraycopy(executors, position, updated, position + 1, executors.length - position);
+		byIndex[index] = updated;
+		byList.put(key, byIndex);
+	}
+
+	/**
+	 * Moves every executor of the specified {@code entity} held by the specified previous
+	 * {@code list} and {@code index} to the current list and index of the {@code entity}, keeping
+	 * their order.
+	 */
+	synchronized void move(Entity entity, EntityList<?> list, int index) {
+		for (EntityExecutor executor : take(entity, keyOf(list), Math.max(index, 0)))
+			if (!executor.removed)
+				add(executor);
+	}
+
+	/**
+	 * Takes every executor of the specified {@code entity} out of the specified {@code key} and
+	 * {@code index} and returns them in order.
+	 */
+	private EntityExecutor[] take(Entity entity, Object key, int index) {
+		EntityExecutor[][] byIndex = byList.get(key);
+		if (byIndex == null || index >= byIndex.length || byIndex[index] == null)
+			return NO_EXECUTORS;
+		EntityExecutor[] executors = byIndex[index];
+		int taken = 0;
+		for (EntityExecutor executor : executors)
+			if (executor.entity == entity)
+				taken++;
+		if (taken == 0)
+			return NO_EXECUTORS;
+
+		EntityExecutor[] kept = new EntityExecutor[executors.length - taken];
+		EntityExecutor[] result = new EntityExecutor[taken];
+		int keptCount = 0;
+		taken = 0;
+		for (EntityExecutor executor : executors) {
+			if (executor.entity == entity)
+				result[taken++] = executor;
+			else kept[keptCount++] = executor;
+		}
+		byIndex = byIndex.clone();
+		byIndex[index] = kept.length == 0 ? null : kept;
+		byList.put(key, byIndex);
+		return result;
+	}
+
+	/**
+	 * Removes every unregistered executor, returning {@code true} if any executor remains.
+	 */
+	synchronized boolean purge() {
+		boolean remaining = false;
+		for (Object key : byList.keySet()) {
+			EntityExecutor[][] byIndex = byList.get(key).clone();
+			boolean listed = false;
+			for (int i = 0; i < byIndex.length; i++) {
+				if (byIndex[i] == null)
+					continue;
+				EntityExecutor[] executors = purge(byIndex[i]);
+				byIndex[i] = executors.length == 0 ? null : executors;
+				listed |= executors.length > 0;
+			}
+			if (listed)
+				byList.put(key, byIndex);
+			else byList.remove(key);
+			remaining |= listed;
+		}
+		return remaining;
+	}
+
+	private static Object keyOf(EntityList<?> list) {
+		return list == null ? UNLISTED : list;
+	}
+
+	private static EntityExecutor[] purge(EntityExecutor[] executors) {
+		int remaining = 0;
+		for (EntityExecutor executor : executors)
+			if (!executor.removed)
+				remaining++;
+		if (remaining == executors.length)
+			return executors;
+		EntityExecutor[] updated = new EntityExecutor[remaining];
+		remaining = 0;
+		for (EntityExecutor executor : executors)
+			if (!executor.removed)
+				updated[remaining++] = executor;
+		return updated;
+	}
+
+	/**
+	 * Executes the {@code EventExecutor} it holds for events of a single {@code Entity}.
+	 */
+	static final class EntityExecutor extends EventExecutor {
+
+		final Entity entity;
+		private final EventExecutor executor;
+
+		EntityExecutor(Entity entity, EventExecutor executor) {
+			this.entity = entity;
+			this.executor = executor;
+			setPriority(executor.getPriority());
+		}
+
+		@Override
+		void remove() {
+			super.remove();
+			entity.removeEventConsumer();
+		}
+
+		@Override
+		public void execute(Event event) {
+			executor.execute(event);
+		}
+
+		@Override
+		public String describe() {
+			return executor.describe() + "@" + entity;
+		}
+	}
+}
@@ -1,5 +1,7 @@
 package event;
 
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
 import infrastructure.GlobalVariables;
 
 /**
@@ -13,7 +15,13 @@ import infrastructure.GlobalVariables;
  * The {@link event.EventManager} class is used to manage the calling, registering, and
  * unregistering of an {@code Event}.
  * 
+ * <p>
+ * An {@code Event} called often can be recycled by an {@link event.EventPool}. A pooled
+ * {@code Event} is acquired from its pool, called, and then released by {@link #release()}; it is
+ * reset and reused once everything holding it has released it.
+ * 
  * @see event.EventManager
+ * @see event.EventPool
  * @see event.EventListener
  * @see event.EventMethod
  * 
@@ -24,6 +32,11 @@ public abstract class Event {
 	private boolean consumed; // This will flag whether or not this specific event has been used.
 	private boolean cancelled; // This will flag whether or not this specific event has been cancelled.
 
+	private static final AtomicIntegerFieldUpdater<Event> REFERENCES = AtomicIntegerFieldUpdater.newUpdater(Event.class, "references");
+
+	private EventPool<?> pool; // The pool recycling this event, or null if it is not pooled
+	private volatile int references; // The amount of holders of a pooled event, 0 once released
+
 	/**
 	 * Calls this {@code Event} for the {@code EventManager} within the
 	 * {@link infrastructure.GlobalVariables} to have any {@code EventListener} listen for this
@@ -37,6 +50,7 @@ public abstract class Event {
 	 * </pre>
 	 */
 	public void call() {
+		checkReleased();
 		GlobalVariables.getEventManager().callEvent(this);
 	}
 
@@ -46,6 +60,7 @@ public abstract class Event {
 	 * called.</b>
 	 */
 	public void consume() {
+		checkReleased();
 		this.consumed = true;
 	}
 
@@ -64,6 +79,7 @@ public abstract class Event {
 	 * {@link event.EventManager} will know it has been cancelled and will <b>not be called at all.</b>
 	 */
 	public void cancel() {
+		checkReleased();
 		this.cancelled = true;
 	}
 
@@ -76,4 +92,66 @@ public abstract class Event {
 	public boolean isCancelled() {
 		return cancelled;
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Returns {@code true} if this {@code Event} has been acquired from an {@code EventPool}.
+	 * 
+	 * @return true if pooled; return false otherwise
+	 */
+	public final boolean isPooled() {
+		return pool != null;
+	}
+
+	/**
+	 * Keeps a pooled {@code Event} from being recycled until {@link #release()} is called once more.
+	 * This method must be called by anything holding onto a pooled {@code Event} past its call. It
+	 * does nothing if this {@code Event} is not pooled.
+	 */
+	public final void retain() {
+		if (pool == null)
+			return;
+		checkReleased();
+		REFERENCES.incrementAndGet(this);
+	}
+
+	/**
+	 * Releases a pooled {@code Event}, returning it to its {@code EventPool} once everything holding
+	 * it has released it. This {@code Event} must not be used once it has been released. It does
+	 * nothing if this {@code Event} is not pooled.
+	 */
+	public final void release() {
+		EventPool<?> pool = this.pool;
+		if (pool == null)
+			return;
+		int remaining = REFERENCES.decrementAndGet(this);
+		if (remaining == 0) {
+			pool.recycle(this);
+		} else if (remaining < 0) {
+			REFERENCES.incrementAndGet(this);
+			throw new IllegalStateException(getClass().getSimpleName() + " has already been released");
+		}
+	}
+
+	/**
+	 * Resets every value of this {@code Event} before it is recycled by its {@code EventPool}. Any
+	 * pooled {@code Event} should override this method to clear its own values, calling it from the
+	 * override.
+	 */
+	protected void reset() {
+		this.consumed = false;
+		this.cancelled = false;
+	}
+
+	/**
+	 * Marks this {@code Event} as acquired from the specified {@code pool} by a single holder.
+	 */
+	final void acquired(EventPool<?> pool) {
+		this.pool = pool;
+		this.references = 1;
+	}
+
+	private void checkReleased() {
+		if (pool != null && references == 0)
+			throw new IllegalStateException(getClass().getSimpleName() + " has been used after it was released");
+	}
+}
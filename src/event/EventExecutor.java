@@ -3,8 +3,29 @@ package event;
 public abstract class EventExecutor {
 	
 	private EventPriority priority = EventPriority.NORMAL;
+
+	volatile EventMetrics.ExecutorCounter counter; // The counter of the last EventMetrics recording this
+	volatile boolean removed; // True once unregistered, so it is skipped until purged
 	
 	public abstract void execute(Event event);
+
+	/**
+	 * Flags this {@code EventExecutor} as removed, so it is skipped until purged. This method is
+	 * called once by the {@code EventSubscription} unregistering it.
+	 */
+	void remove() {
+		removed = true;
+	}
+
+	/**
+	 * Returns a description of this {@code EventExecutor} used by the {@code EventMetrics} to tell
+	 * executors apart.
+	 * 
+	 * @return the description
+	 */
+	public String describe() {
+		return toString();
+	}
 	
 	public EventPriority getPriority() {
 		return priority;
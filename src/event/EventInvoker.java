@@ -0,0 +1,27 @@
+package event;
+
+/**
+ * Invokes a single {@code EventMethod} of an {@code EventListener} directly, instead of through
+ * {@code Method.invoke}. An {@code EventInvoker} is generated for every {@code EventMethod} once it
+ * has been registered to an {@code EventManager}.
+ * 
+ * @author Albert Beaupre
+ * 
+ * @see event.MethodExecutor
+ */
+@FunctionalInterface
+public interface EventInvoker {
+
+	/**
+	 * Invokes the underlying {@code EventMethod} of the specified {@code listener} with the specified
+	 * {@code event}.
+	 * 
+	 * @param listener
+	 *            the listener declaring the method
+	 * @param event
+	 *            the event to invoke the method with
+	 * @throws Throwable
+	 *             if the method throws anything
+	 */
+	void invoke(EventListener listener, Event event) throws Throwable;
+}
@@ -1,11 +1,20 @@
 package event;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
 import java.lang.reflect.Method;
-import java.util.HashSet;
-import java.util.List;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
-import java.util.stream.Collectors;
+
+import entity.Entity;
+import entity.EntityList;
+import event.EntityExecutors.EntityExecutor;
+import event.impl.EntityEvent;
 
 /**
  * <p>
@@ -16,6 +25,35 @@ import java.util.stream.Collectors;
  * an {@code EventListener} has successfully listened to an {@code Event}, any method that has been
  * registered within the listener will be called.
  * 
+ * <p>
+ * An {@code EventMethod} listens for its declared {@code Event} class and every subclass of it. A
+ * method declaring an interface implemented by any {@code Event} listens for every {@code Event}
+ * implementing that interface. The executors listening for each concrete {@code Event} class are
+ * resolved once and cached until the next registration change, so the hierarchy is never walked
+ * while an {@code Event} is being called.
+ * 
+ * <p>
+ * Every {@code Event} is executed on the thread calling it, unless the asynchronous mode has been
+ * enabled by {@link #enableAsync(int, int)}; any {@code AsyncEvent} is then executed on a worker
+ * thread instead.
+ * 
+ * <p>
+ * Once an {@code EventMetrics} has been set by {@link #setMetrics(EventMetrics)}, every call and
+ * every execution of an {@code EventExecutor} is recorded by it.
+ * 
+ * <p>
+ * Every {@code register} method returns an {@code EventSubscription}, which unregisters what it has
+ * registered in constant time. An unregistered executor is skipped until enough executors have been
+ * unregistered to purge them from every array at once.
+ * 
+ * <p>
+ * An {@code EntityEvent} can also be listened for on a single {@code Entity} by
+ * {@link #registerEntityEvent(Entity, Class, Consumer)}. These executors are held by the
+ * {@code EntityList} and index of their {@code Entity}, so they are only looked up for an event of
+ * an {@code Entity} at the same place, instead of every listener filtering every event itself. An
+ * {@code EntityList} moves them whenever it adds their {@code Entity}, and they stay registered
+ * until their {@code EventSubscription} is unregistered.
+ * 
  * @see event.Event
  * @see event.EventListener
  * @see event.EventMethod
@@ -24,10 +62,62 @@ import java.util.stream.Collectors;
  */
 public class EventManager {
 
+	private static final EventExecutor[] NO_EXECUTORS = new EventExecutor[0];
+
+	/**
+	 * Registers every {@code EventMethod} of a listener class that has no generated
+	 * {@code EventRegistration}.
+	 */
+	private static final EventRegistration REFLECTIVE = subscription -> subscription.manager.registerReflectively(subscription);
+
 	/**
-	 * This map is used to store event listener methods based on their relevant event.
+	 * The amount of unregistered executors that are skipped before they are purged.
 	 */
-	private final ConcurrentHashMap<Class<? extends Event>, HashSet<EventExecutor>> eventExecutors;
+	private static final int PURGE_THRESHOLD = 64;
+
+	/**
+	 * This value is used to find the generated {@code EventRegistration} of each listener class once.
+	 */
+	private static final ClassValue<EventRegistration> REGISTRATIONS = new ClassValue<EventRegistration>() {
+		@Override
+		protected EventRegistration computeValue(Class<?> type) {
+			try {
+				Class<?> generated = Class.forName(type.getName() + "$EventRegistration", true, type.getClassLoader());
+				return (EventRegistration) generated.getDeclaredConstructor().newInstance();
+			} catch (ClassNotFoundException e) {
+				return REFLECTIVE;
+			} catch (ReflectiveOperationException | ClassCastException e) {
+				e.printStackTrace();
+				return REFLECTIVE;
+			}
+		}
+	};
+
+	/**
+	 * This map is used to store event listener methods based on their relevant event. Every array is
+	 * sorted from the highest priority to the lowest and is never modified once stored, so it can be
+	 * iterated without copying while another thread registers or unregisters an executor.
+	 */
+	private final ConcurrentHashMap<Class<?>, EventExecutor[]> eventExecutors;
+
+	/**
+	 * This map is used to cache every executor listening for a concrete event class, including the
+	 * executors of its superclasses and interfaces. The map is replaced by an empty map whenever an
+	 * executor is registered or unregistered.
+	 */
+	private volatile ConcurrentHashMap<Class<?>, EventExecutor[]> resolvedExecutors = new ConcurrentHashMap<>();
+
+	/**
+	 * This map is used to store the executors listening for an {@code EntityEvent} class on specific
+	 * entities, by the index of each {@code Entity}.
+	 */
+	private final ConcurrentHashMap<Class<?>, EntityExecutors> entityExecutors = new ConcurrentHashMap<>();
+
+	private volatile AsyncEventDispatcher asyncDispatcher; // Executes every AsyncEvent, or null once disabled and drained
+	private volatile EventMetrics metrics; // Records every call, or null if not recording
+
+	final ReferenceQueue<EventListener> collected = new ReferenceQueue<>(); // The weak listeners collected
+	private final AtomicInteger removedCount = new AtomicInteger(); // The unregistered executors not purged
 
 	/**
 	 * Constructs a new {@code EventManager} with no {@code EventListener} registered.
@@ -40,57 +130,166 @@ public class EventManager {
 	 * Registers the specified {@code listener} to this {@code EventManager} to listen for any events
 	 * relevant to the methods the {@code listener} has.
 	 * 
+	 * <p>
+	 * If an {@code EventRegistration} has been generated for the class of the {@code listener}, its
+	 * methods are registered by it without reflection.
+	 * 
 	 * @param listener
 	 *            the listener to be registered
+	 * @return the subscription unregistering the {@code listener}
 	 * 
 	 * @see event.EventListener
+	 * @see event.EventRegistration
+	 */
+	public EventSubscription registerEventListener(EventListener listener) {
+		return register(listener, false);
+	}
+
+	/**
+	 * Registers the specified {@code listener} to this {@code EventManager} in the same way as
+	 * {@link #registerEventListener(EventListener)}, but without keeping it from being garbage
+	 * collected. Once the {@code listener} has been collected, its {@code EventSubscription} is
+	 * unregistered.
+	 * 
+	 * @param listener
+	 *            the listener to be registered
+	 * @return the subscription unregistering the {@code listener}
 	 */
-	public void registerEventListener(EventListener listener) {
+	public EventSubscription registerWeakEventListener(EventListener listener) {
+		return register(listener, true);
+	}
+
+	private EventSubscription register(EventListener listener, boolean weak) {
+		expungeCollected();
+		EventSubscription subscription = new EventSubscription(this, listener, weak);
+		REGISTRATIONS.get(listener.getClass()).register(subscription);
+		return subscription;
+	}
+
+	/**
+	 * Registers every {@code EventMethod} of the listener of the specified {@code subscription} found
+	 * by reflection.
+	 */
+	private void registerReflectively(EventSubscription subscription) {
+		EventListener listener = subscription.getListener();
+		if (listener == null)
+			return;
 		for (Method method : listener.getClass().getMethods()) {
 			if (method.getParameterTypes().length != 1)
 				continue;
 			if (!method.isAnnotationPresent(EventMethod.class))
 				continue;
 			method.setAccessible(true);
-			@SuppressWarnings("unchecked")
-			Class<? extends Event> eventClazz = (Class<? extends Event>) method.getParameterTypes()[0];
-			HashSet<EventExecutor> methodSet = eventExecutors.getOrDefault(eventClazz, new HashSet<>());
-			MethodExecutor methodExecutor = new MethodExecutor(listener, method);
-			methodExecutor.setPriority(method.getAnnotation(EventMethod.class).priority());
-			methodSet.add(methodExecutor);
-			eventExecutors.put(eventClazz, methodSet);
+			subscription.registerMethod(method);
 		}
 	}
 	
-	public <T extends Event> void registerEvent(Class<T> eventClazz, Consumer<T> consumer) {
-		registerEvent(eventClazz, consumer, EventPriority.NORMAL);
+	public <T extends Event> EventSubscription registerEvent(Class<T> eventClazz, Consumer<T> consumer) {
+		return registerEvent(eventClazz, consumer, EventPriority.NORMAL);
 	}
 	
-	public <T extends Event> void registerEvent(Class<T> eventClazz, Consumer<T> consumer, EventPriority priority) {
-		HashSet<EventExecutor> consumerSet = eventExecutors.getOrDefault(eventClazz, new HashSet<>());
+	public <T extends Event> EventSubscription registerEvent(Class<T> eventClazz, Consumer<T> consumer, EventPriority priority) {
+		expungeCollected();
 		ConsumerExecutor<T> consumerExecutor = new ConsumerExecutor<>(consumer);
 		consumerExecutor.setPriority(priority);
-		consumerSet.add(consumerExecutor);
-		eventExecutors.put(eventClazz, consumerSet);
+		EventSubscription subscription = new EventSubscription(this, null, false);
+		subscription.register(eventClazz, consumerExecutor);
+		return subscription;
+	}
+
+	/**
+	 * Registers the specified {@code consumer} to listen for the specified {@code eventClazz} only
+	 * when it happens to the specified {@code entity}.
+	 * 
+	 * @param entity
+	 *            the entity to listen on
+	 * @param eventClazz
+	 *            the class of the event to listen for
+	 * @param consumer
+	 *            the consumer of the event
+	 * @return the subscription unregistering the {@code consumer}
+	 * 
+	 * @see #registerEntityEvent(Entity, Class, Consumer, EventPriority)
+	 */
+	public <T extends Event & EntityEvent> EventSubscription registerEntityEvent(Entity entity, Class<T> eventClazz, Consumer<T> consumer) {
+		return registerEntityEvent(entity, eventClazz, consumer, EventPriority.NORMAL);
+	}
+
+	/**
+	 * Registers the specified {@code consumer} to listen for the specified {@code eventClazz} only
+	 * when it happens to the specified {@code entity}, with the specified {@code priority}.
+	 * 
+	 * <p>
+	 * The {@code consumer} is held by the {@code EntityList} and index of the {@code entity}, and is
+	 * moved along with the {@code entity} whenever an {@code EntityList} adds it, so it keeps
+	 * listening while the {@code entity} moves from one {@code EntityList} to another. It is only
+	 * unregistered by the returned {@code EventSubscription}, which must be unregistered once the
+	 * {@code entity} is destroyed. Unlike any other registration, it only listens for the exact
+	 * {@code eventClazz} and none of its subclasses.
+	 * 
+	 * <p>
+	 * An {@code Entity} can only be listened on by a single {@code EventManager} at a time.
+	 * 
+	 * @param entity
+	 *            the entity to listen on
+	 * @param eventClazz
+	 *            the class of the event to listen for
+	 * @param consumer
+	 *            the consumer of the event
+	 * @param priority
+	 *            the priority of the consumer
+	 * @return the subscription unregistering the {@code consumer}
+	 * @throws IllegalStateException
+	 *             if the {@code entity} is already listened on by another {@code EventManager}
+	 */
+	public <T extends Event & EntityEvent> EventSubscription registerEntityEvent(Entity entity, Class<T> eventClazz, Consumer<T> consumer, EventPriority priority) {
+		expungeCollected();
+		ConsumerExecutor<T> consumerExecutor = new ConsumerExecutor<>(consumer);
+		consumerExecutor.setPriority(priority);
+		EventSubscription subscription = new EventSubscription(this, null, false);
+		subscription.register(eventClazz, new EntityExecutor(entity, consumerExecutor));
+		return subscription;
+	}
+
+	/**
+	 * Moves every consumer registered on the specified {@code entity} by
+	 * {@link #registerEntityEvent(Entity, Class, Consumer)} from the specified previous {@code list}
+	 * and {@code index} to the current list and index of the {@code entity}. This is called by an
+	 * {@code EntityList} once it has added an {@code entity} that is listened on by this
+	 * {@code EventManager}, while holding the lock of the {@code entity}.
+	 * 
+	 * @param entity
+	 *            the entity that has been added
+	 * @param list
+	 *            the list the entity was previously added to, or null if none
+	 * @param index
+	 *            the previous index of the entity
+	 */
+	public void moveEntityEvents(Entity entity, EntityList<?> list, int index) {
+		for (EntityExecutors executors : entityExecutors.values())
+			executors.move(entity, list, index);
 	}
 
 	/**
 	 * Unregisters the specified {@code listener} from this {@code EventManager} if it is existing, so
 	 * it cannot listen for any events.
 	 * 
+	 * <p>
+	 * This method searches every registered executor for the {@code listener}; unregistering the
+	 * {@code EventSubscription} returned when registering it does not.
+	 * 
 	 * @param listener
 	 *            the listener to be unregistered, if existing
 	 * 
 	 * @see event.EventListener
+	 * @see event.EventSubscription#unregister()
 	 */
 	public void unregisterEventListener(EventListener listener) {
-		for (HashSet<EventExecutor> set : eventExecutors.values()) {
-			for (EventExecutor executor : set) {
-				if (executor.equals(listener)) {
-					set.remove(executor);
-				}
-			}
-		}
+		for (EventExecutor[] executors : eventExecutors.values())
+			for (EventExecutor executor : executors)
+				if (!executor.removed && executor.equals(listener))
+					executor.removed = true;
+		purge();
 	}
 
 	/**
@@ -103,14 +302,287 @@ public class EventManager {
 	 * @see event.Event
 	 */
 	public void callEvent(Event event) {
-		List<EventExecutor> executors = eventExecutors.get(event.getClass()).stream().sorted((e1, e2) ->  e2.getPriority().ordinal() - e1.getPriority().ordinal()).collect(Collectors.toList());
-		for(EventExecutor e : executors) {
-			if(!event.isCancelled()) {
-				e.execute(event);
+		AsyncEventDispatcher dispatcher = this.asyncDispatcher;
+		if (dispatcher != null && event instanceof AsyncEvent && dispatcher.dispatch(event))
+			return;
+		dispatch(event);
+	}
+
+	/**
+	 * Enables the asynchronous mode of this {@code EventManager}, so any {@code AsyncEvent} is
+	 * executed on one of the specified amount of {@code workers} instead of the thread calling it.
+	 * Each worker queues up to the specified {@code capacity} of events, after which any thread
+	 * calling an {@code AsyncEvent} for that worker waits briefly for space and then drops the event,
+	 * so an event is never executed ahead of the events queued before it.
+	 * 
+	 * <p>
+	 * If the asynchronous mode is already enabled, the current workers are shut down once they have
+	 * executed the events queued to them, and the new workers only start executing events once the
+	 * current ones have exited.
+	 * 
+	 * @param workers
+	 *            the amount of worker threads
+	 * @param capacity
+	 *            the amount of events each worker can queue
+	 * 
+	 * @see event.AsyncEvent
+	 */
+	public synchronized void enableAsync(int workers, int capacity) {
+		AsyncEventDispatcher previous = this.asyncDispatcher;
+		this.asyncDispatcher = new AsyncEventDispatcher(this, workers, capacity, previous);
+		if (previous != null)
+			previous.shutdown();
+	}
+
+	/**
+	 * Disables the asynchronous mode of this {@code EventManager}, so every {@code AsyncEvent} is
+	 * executed on the thread calling it again. Any event already queued is still executed by its
+	 * worker, and until every worker has exited, an {@code AsyncEvent} is still queued behind them.
+	 */
+	public synchronized void disableAsync() {
+		AsyncEventDispatcher current = this.asyncDispatcher;
+		if (current != null)
+			current.shutdown();
+	}
+
+	/**
+	 * Forgets the specified {@code dispatcher} once every one of its workers has exited, unless it
+	 * has already been replaced.
+	 */
+	synchronized void exited(AsyncEventDispatcher dispatcher) {
+		if (this.asyncDispatcher == dispatcher)
+			this.asyncDispatcher = null;
+	}
+
+	/**
+	 * Returns the amount of {@code AsyncEvent} calls dropped because the queue of their worker stayed
+	 * full, since the asynchronous mode was last enabled.
+	 * 
+	 * @return the amount of dropped events; return 0 if the asynchronous mode is disabled
+	 */
+	public long getDroppedEvents() {
+		AsyncEventDispatcher dispatcher = this.asyncDispatcher;
+		return dispatcher == null ? 0 : dispatcher.getDropped();
+	}
+
+	/**
+	 * Returns {@code true} if the asynchronous mode of this {@code EventManager} is enabled.
+	 * 
+	 * @return true if enabled; return false otherwise
+	 */
+	public boolean isAsync() {
+		AsyncEventDispatcher dispatcher = this.asyncDispatcher;
+		return dispatcher != null && dispatcher.isRunning();
+	}
+
+	/**
+	 * Sets the {@code EventMetrics} recording every {@code Event} called on this
+	 * {@code EventManager}.
+	 * 
+	 * @param metrics
+	 *            the metrics to set, or null to stop recording
+	 */
+	public void setMetrics(EventMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	/**
+	 * Returns the {@code EventMetrics} recording every {@code Event} called on this
+	 * {@code EventManager}.
+	 * 
+	 * @return the metrics, or null if not recording
+	 */
+	public EventMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Executes every executor listening for the specified {@code event} on the current thread, until
+	 * the {@code event} has been cancelled or consumed.
+	 * 
+	 * @param event
+	 *            the event to execute
+	 */
+	void dispatch(Event event) {
+		ConcurrentHashMap<Class<?>, EventExecutor[]> resolvedExecutors = this.resolvedExecutors;
+		EventExecutor[] executors = resolvedExecutors.get(event.getClass());
+		if (executors == null)
+			executors = resolvedExecutors.computeIfAbsent(event.getClass(), this::resolve);
+
+		if (event instanceof EntityEvent && !entityExecutors.isEmpty()) {
+			EntityExecutors table = entityExecutors.get(event.getClass());
+			Entity entity = table == null ? null : ((EntityEvent) event).getEntity();
+			if (entity != null) {
+				EntityExecutor[] targeted = table.get(entity);
+				if (targeted.length > 0) {
+					dispatch(event, executors, targeted, entity);
+					return;
+				}
+			}
+		}
+
+		EventMetrics metrics = this.metrics;
+		if (metrics != null) {
+			metrics.dispatch(event, executors);
+			return;
+		}
+		for (int i = 0; i < executors.length; i++) {
+			if (event.isCancelled() || event.isConsumed())
+				break;
+			EventExecutor executor = executors[i];
+			if (!executor.removed)
+				executor.execute(event);
+		}
+	}
+
+	/**
+	 * Executes the specified {@code executors} merged with the {@code targeted} executors of the
+	 * specified {@code entity} by priority, until the {@code event} has been cancelled or consumed.
+	 */
+	private void dispatch(Event event, EventExecutor[] executors, EntityExecutor[] targeted, Entity entity) {
+		EventMetrics metrics = this.metrics;
+		if (metrics != null) {
+			ArrayList<EventExecutor> merged = new ArrayList<>(executors.length + targeted.length);
+			int index = 0;
+			for (EntityExecutor executor : targeted) {
+				if (executor.entity != entity)
+					continue;
+				while (index < executors.length && executors[index].getPriority().ordinal() >= executor.getPriority().ordinal())
+					merged.add(executors[index++]);
+				merged.add(executor);
 			}
-			if (event.isConsumed()) {
+			while (index < executors.length)
+				merged.add(executors[index++]);
+			metrics.dispatch(event, merged.toArray(NO_EXECUTORS));
+			return;
+		}
+
+		int index = 0, targetIndex = 0;
+		while (!event.isCancelled() && !event.isConsumed()) {
+			EventExecutor executor;
+			if (targetIndex < targeted.length && (index == executors.length || targeted[targetIndex].getPriority().ordinal() > executors[index].getPriority().ordinal())) {
+				EntityExecutor entityExecutor = targeted[targetIndex++];
+				if (entityExecutor.entity != entity)
+					continue;
+				executor = entityExecutor;
+			} else if (index < executors.length) {
+				executor = executors[index++];
+			} else {
 				break;
 			}
+			if (!executor.removed)
+				executor.execute(event);
+		}
+	}
+
+	/**
+	 * Inserts the specified {@code executor} into a copy of the executors of the specified
+	 * {@code eventClazz}, after every executor with the same or a higher priority, and stores the copy.
+	 * Any unregistered executor is left out of the copy.
+	 */
+	void register(Class<?> eventClazz, EventExecutor executor) {
+		if (executor instanceof EntityExecutor) {
+			Entity entity = ((EntityExecutor) executor).entity;
+			synchronized (entity) { // Keeps the entity from being added elsewhere until it is held
+				entity.addEventConsumer(this);
+				entityExecutors.computeIfAbsent(eventClazz, key -> new EntityExecutors()).add((EntityExecutor) executor);
+			}
+			return;
 		}
+		eventExecutors.compute(eventClazz, (key, executors) -> {
+			if (executors == null)
+				return new EventExecutor[] { executor };
+			executors = withoutRemoved(executors);
+			int index = executors.length;
+			while (index > 0 && executors[index - 1].getPriority().ordinal() < executor.getPriority().ordinal())
+				index--;
+			EventExecutor[] updated = new EventExecutor[executors.length + 1];
+			System.arraycopy(executors, 0, updated, 0, index);
+			updated[index] = executor;
+			System.arraycopy(executors, index, updated, index + 1, executors.length - index);
+			return updated;
+		});
+		resolvedExecutors = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Counts the specified amount of {@code removed} executors, which have been flagged as removed by
+	 * an {@code EventSubscription}, and purges every removed executor once there are enough of them.
+	 */
+	void removed(int removed) {
+		if (removedCount.addAndGet(removed) >= PURGE_THRESHOLD)
+			purge();
+	}
+
+	/**
+	 * Replaces every array of executors containing a removed executor by a copy without them.
+	 */
+	private void purge() {
+		removedCount.set(0);
+		for (Class<?> eventClazz : eventExecutors.keySet()) {
+			eventExecutors.computeIfPresent(eventClazz, (key, executors) -> {
+				EventExecutor[] updated = withoutRemoved(executors);
+				return updated.length == 0 ? null : updated;
+			});
+		}
+		for (EntityExecutors executors : entityExecutors.values())
+			executors.purge();
+		resolvedExecutors = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Unregisters the {@code EventSubscription} of every weak listener that has been garbage
+	 * collected.
+	 */
+	private void expungeCollected() {
+		Reference<? extends EventListener> reference;
+		while ((reference = collected.poll()) != null)
+			((EventSubscription.WeakListener) reference).subscription.unregister();
+	}
+
+	private static EventExecutor[] withoutRemoved(EventExecutor[] executors) {
+		int remaining = 0;
+		EventExecutor[] updated = null;
+		for (int i = 0; i < executors.length; i++) {
+			if (executors[i].removed) {
+				if (updated == null)
+					updated = Arrays.copyOf(executors, executors.length);
+				continue;
+			}
+			if (updated != null)
+				updated[remaining] = executors[i];
+			remaining++;
+		}
+		return updated == null ? executors : Arrays.copyOf(updated, remaining);
+	}
+
+	/**
+	 * Collects the executors of the specified {@code eventClazz} and of every superclass and interface
+	 * of it, sorted from the highest priority to the lowest. Executors of the same priority keep the
+	 * order of the hierarchy, starting at the most specific class.
+	 */
+	private EventExecutor[] resolve(Class<?> eventClazz) {
+		ArrayList<EventExecutor> resolved = new ArrayList<>();
+		LinkedHashSet<Class<?>> hierarchy = new LinkedHashSet<>();
+		for (Class<?> type = eventClazz; type != null; type = type.getSuperclass())
+			hierarchy.add(type);
+		for (Class<?> type : hierarchy.toArray(new Class<?>[0]))
+			addInterfaces(type, hierarchy);
+
+		for (Class<?> type : hierarchy) {
+			EventExecutor[] executors = eventExecutors.get(type);
+			if (executors != null)
+				Collections.addAll(resolved, executors);
+		}
+		if (resolved.isEmpty())
+			return NO_EXECUTORS;
+		resolved.sort((e1, e2) -> e2.getPriority().ordinal() - e1.getPriority().ordinal());
+		return resolved.toArray(NO_EXECUTORS);
+	}
+
+	private static void addInterfaces(Class<?> type, LinkedHashSet<Class<?>> hierarchy) {
+		for (Class<?> implemented : type.getInterfaces())
+			if (hierarchy.add(implemented))
+				addInterfaces(implemented, hierarchy);
 	}
 }
@@ -0,0 +1,299 @@
+package event;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The {@code EventMetrics} class records every {@code Event} called on an {@code EventManager}.
+ * For each {@code Event} class, the amount of calls, how many of them ended cancelled or consumed,
+ * the total time they took, and how many asynchronous calls were dropped are recorded. For each
+ * {@code EventExecutor}, the amount of executions and the total and longest execution time are
+ * recorded. An {@code EventExecutor} is only referenced weakly, and its statistics are dropped once
+ * it has been unregistered or garbage collected.
+ * 
+ * <p>
+ * An {@code EventManager} only records events once an {@code EventMetrics} has been set to it; until
+ * then, calling an {@code Event} costs nothing more than a single check.
+ * 
+ * <p>
+ * <b>Example: This will record every event and dump the 20 most expensive listeners</b>
+ * 
+ * <pre>
+ * EventMetrics metrics = new EventMetrics();
+ * GlobalVariables.getEventManager().setMetrics(metrics);
+ * 
+ * metrics.dump(new File("./event-metrics.txt"), 20);
+ * </pre>
+ * 
+ * @author Albert Beaupre
+ * 
+ * @see event.EventStatistics
+ * @see event.ExecutorStatistics
+ */
+public final class EventMetrics {
+
+	private final ClassValue<EventCounter> eventCounters = new ClassValue<EventCounter>() {
+		@Override
+		@SuppressWarnings("unchecked")
+		protected EventCounter computeValue(Class<?> type) {
+			EventCounter counter = new EventCounter((Class<? extends Event>) type);
+			registeredEvents.add(counter);
+			return counter;
+		}
+	};
+	private final Set<EventCounter> registeredEvents = ConcurrentHashMap.newKeySet();
+	private final Set<ExecutorCounter> registeredExecutors = ConcurrentHashMap.newKeySet();
+	private int pruneAt = 64; // The amount of executor counters at which they are next pruned, guarded by registeredExecutors
+
+	/**
+	 * Executes every one of the specified {@code executors} for the specified {@code event} the same
+	 * way an {@code EventManager} does, while recording the call and every execution.
+	 * 
+	 * @param event
+	 *            the event being called
+	 * @param executors
+	 *            the executors listening for the event
+	 */
+	void dispatch(Event event, EventExecutor[] executors) {
+		long start = System.nanoTime();
+		long last = start;
+		for (int i = 0; i < executors.length; i++) {
+			if (event.isCancelled() || event.isConsumed())
+				break;
+			EventExecutor executor = executors[i];
+			if (executor.removed)
+				continue;
+			try {
+				executor.execute(event);
+			} finally {
+				long now = System.nanoTime();
+				counterOf(executor).record(now - last);
+				last = now;
+			}
+		}
+
+		EventCounter counter = eventCounters.get(event.getClass());
+		counter.calls.increment();
+		counter.totalNanos.add(last - start);
+		if (event.isCancelled())
+			counter.cancelled.increment();
+		if (event.isConsumed())
+			counter.consumed.increment();
+	}
+
+	/**
+	 * Records the specified {@code event} as dropped by the asynchronous dispatcher of an
+	 * {@code EventManager}, because the queue of its worker stayed full.
+	 */
+	void drop(Event event) {
+		eventCounters.get(event.getClass()).dropped.increment();
+	}
+
+	/**
+	 * Returns the {@code EventStatistics} recorded for every {@code Event} class that has been called,
+	 * sorted from the highest total time to the lowest.
+	 * 
+	 * @return the statistics recorded
+	 */
+	public List<EventStatistics> getEventStatistics() {
+		List<EventStatistics> statistics = new ArrayList<>(registeredEvents.size());
+		for (EventCounter counter : registeredEvents)
+			statistics.add(counter.snapshot());
+		statistics.sort(Comparator.comparingLong(EventStatistics::getTotalNanos).reversed());
+		return statistics;
+	}
+
+	/**
+	 * Returns the {@code EventStatistics} recorded for the specified {@code eventClass}.
+	 * 
+	 * @param eventClass
+	 *            the class of the events
+	 * @return the statistics recorded for the class
+	 */
+	public EventStatistics getEventStatistics(Class<? extends Event> eventClass) {
+		return eventCounters.get(eventClass).snapshot();
+	}
+
+	/**
+	 * Returns the {@code ExecutorStatistics} recorded for every {@code EventExecutor} that has been
+	 * executed and is still registered, sorted from the highest total time to the lowest.
+	 * 
+	 * @return the statistics recorded
+	 */
+	public List<ExecutorStatistics> getExecutorStatistics() {
+		prune();
+		List<ExecutorStatistics> statistics = new ArrayList<>(registeredExecutors.size());
+		for (ExecutorCounter counter : registeredExecutors)
+			statistics.add(counter.snapshot());
+		statistics.sort(Comparator.comparingLong(ExecutorStatistics::getTotalNanos).reversed());
+		return statistics;
+	}
+
+	/**
+	 * Returns the {@code EventStatistics} of the specified {@code amount} of {@code Event} classes
+	 * with the highest total time.
+	 * 
+	 * @param amount
+	 *            the amount of statistics to return
+	 * @return the most expensive events
+	 */
+	public List<EventStatistics> getTopEvents(int amount) {
+		List<EventStatistics> statistics = getEventStatistics();
+		return statistics.subList(0, Math.min(amount, statistics.size()));
+	}
+
+	/**
+	 * Returns the {@code ExecutorStatistics} of the specified {@code amount} of {@code EventExecutor}
+	 * objects with the highest total time.
+	 * 
+	 * @param amount
+	 *            the amount of statistics to return
+	 * @return the most expensive executors
+	 */
+	public List<ExecutorStatistics> getTopExecutors(int amount) {
+		List<ExecutorStatistics> statistics = getExecutorStatistics();
+		return statistics.subList(0, Math.min(amount, statistics.size()));
+	}
+
+	/**
+	 * Resets every statistic recorded by this {@code EventMetrics}.
+	 */
+	public void reset() {
+		for (EventCounter counter : registeredEvents)
+			counter.reset();
+		for (ExecutorCounter counter : registeredExecutors)
+			counter.reset();
+	}
+
+	/**
+	 * Writes the statistics of the specified {@code amount} of most expensive {@code Event} classes and
+	 * {@code EventExecutor} objects to the specified {@code file}.
+	 * 
+	 * @param file
+	 *            the file to write to
+	 * @param amount
+	 *            the amount of events and executors to write
+	 * @throws IOException
+	 *             if the file could not be written to
+	 */
+	public void dump(File file, int amount) throws IOException {
+		try (PrintWriter writer = new PrintWriter(file)) {
+			for (EventStatistics statistics : getTopEvents(amount))
+				writer.println(statistics);
+			writer.println();
+			for (ExecutorStatistics statistics : getTopExecutors(amount))
+				writer.println(statistics);
+		}
+	}
+
+	/**
+	 * Returns the counter of the specified {@code executor} for this {@code EventMetrics}, which is
+	 * kept on the executor so it is found without a lookup.
+	 */
+	private ExecutorCounter counterOf(EventExecutor executor) {
+		ExecutorCounter counter = executor.counter;
+		if (counter != null && counter.metrics == this)
+			return counter;
+		synchronized (executor) {
+			counter = executor.counter;
+			if (counter == null || counter.metrics != this) {
+				executor.counter = counter = new ExecutorCounter(this, executor);
+				registeredExecutors.add(counter);
+				synchronized (registeredExecutors) {
+					if (registeredExecutors.size() >= pruneAt) {
+						prune();
+						pruneAt = Math.max(64, registeredExecutors.size() * 2);
+					}
+				}
+			}
+			return counter;
+		}
+	}
+
+	/**
+	 * Drops the counter of every {@code EventExecutor} that has been unregistered or garbage
+	 * collected.
+	 */
+	private void prune() {
+		registeredExecutors.removeIf(ExecutorCounter::isStale);
+	}
+
+	/**
+	 * The statistics of a single {@code Event} class that are updated by every call.
+	 */
+	private static final class EventCounter {
+		private final Class<? extends Event> eventClass;
+		private final LongAdder calls = new LongAdder();
+		private final LongAdder cancelled = new LongAdder();
+		private final LongAdder consumed = new LongAdder();
+		private final LongAdder totalNanos = new LongAdder();
+		private final LongAdder dropped = new LongAdder();
+
+		private EventCounter(Class<? extends Event> eventClass) {
+			this.eventClass = eventClass;
+		}
+
+		private EventStatistics snapshot() {
+			return new EventStatistics(eventClass, calls.sum(), cancelled.sum(), consumed.sum(), totalNanos.sum(), dropped.sum());
+		}
+
+		private void reset() {
+			calls.reset();
+			cancelled.reset();
+			consumed.reset();
+			totalNanos.reset();
+			dropped.reset();
+		}
+	}
+
+	/**
+	 * The statistics of a single {@code EventExecutor} that are updated by every execution.
+	 */
+	static final class ExecutorCounter {
+		private final EventMetrics metrics;
+		private final WeakReference<EventExecutor> executor;
+		private final String description; // The description of the executor, kept once it is collected
+		private final EventPriority priority;
+		private final LongAdder invocations = new LongAdder();
+		private final LongAdder totalNanos = new LongAdder();
+		private final AtomicLong maxNanos = new AtomicLong();
+
+		private ExecutorCounter(EventMetrics metrics, EventExecutor executor) {
+			this.metrics = metrics;
+			this.executor = new WeakReference<>(executor);
+			this.description = executor.describe();
+			this.priority = executor.getPriority();
+		}
+
+		private boolean isStale() {
+			EventExecutor executor = this.executor.get();
+			return executor == null || executor.removed;
+		}
+
+		private void record(long nanos) {
+			invocations.increment();
+			totalNanos.add(nanos);
+			if (nanos > maxNanos.get())
+				maxNanos.accumulateAndGet(nanos, Math::max);
+		}
+
+		private ExecutorStatistics snapshot() {
+			return new ExecutorStatistics(description, priority, invocations.sum(), totalNanos.sum(), maxNanos.get());
+		}
+
+		private void reset() {
+			invocations.reset();
+			totalNanos.reset();
+			maxNanos.set(0);
+		}
+	}
+}
@@ -0,0 +1,198 @@
+package event;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * The {@code EventPool} class recycles instances of a single {@code Event} class that is called
+ * often, so calling it does not allocate a new {@code Event} every time.
+ * 
+ * <p>
+ * An {@code Event} acquired from an {@code EventPool} is returned to it once it has been released
+ * by everything holding it. The thread calling the {@code Event} releases it once the call has
+ * returned and it no longer needs the result; anything else keeping the {@code Event} past the call,
+ * such as an asynchronous worker, retains it first and releases it once done. A released
+ * {@code Event} is reset and handed out again by the next {@link #acquire()}, so it must not be used
+ * after being released.
+ * 
+ * <p>
+ * <b>Example: This will call a pooled event and release it afterwards</b>
+ * 
+ * <pre>
+ * EntityLocationChangeEvent event = EntityLocationChangeEvent.acquire(entity, type, current, previous);
+ * event.call();
+ * event.release();
+ * </pre>
+ * 
+ * <p>
+ * Every thread recycles the events it releases on its own, so acquiring and releasing an
+ * {@code Event} is never contended. Once debugging is enabled by {@link #setDebugging(boolean)},
+ * events are no longer recycled and every released {@code Event} that is still reachable after the
+ * next garbage collections is logged, since it is being held onto by something that has not retained
+ * it.
+ * 
+ * @author Albert Beaupre
+ * 
+ * @param <E>
+ *            The {@code Event} type recycled by this {@code EventPool}.
+ * 
+ * @see event.Event#release()
+ */
+public final class EventPool<E extends Event> {
+
+	/**
+	 * The amount of events each thread keeps for an {@code EventPool} if no capacity is given.
+	 */
+	public static final int DEFAULT_CAPACITY = 64;
+
+	private static final Logger LOGGER = Logger.getLogger(EventPool.class.getName());
+
+	private static volatile boolean debugging;
+
+	private final Supplier<E> factory;
+	private final ThreadLocal<Stack> stacks; // The released events kept by each thread
+	private final ArrayList<Released> released = new ArrayList<>(); // Only used while debugging
+
+	/**
+	 * Constructs a new {@code EventPool} creating new events from the specified {@code factory} and
+	 * keeping up to {@link #DEFAULT_CAPACITY} released events per thread.
+	 * 
+	 * @param factory
+	 *            the factory creating new events
+	 */
+	public EventPool(Supplier<E> factory) {
+		this(factory, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constructs a new {@code EventPool} creating new events from the specified {@code factory} and
+	 * keeping up to the specified {@code capacity} of released events per thread.
+	 * 
+	 * @param factory
+	 *            the factory creating new events
+	 * @param capacity
+	 *            the amount of released events kept per thread
+	 */
+	public EventPool(Supplier<E> factory, int capacity) {
+		if (capacity < 1)
+			throw new IllegalArgumentException("The capacity of an EventPool must be at least 1");
+		this.factory = Objects.requireNonNull(factory, "The factory of an EventPool cannot be NULL");
+		this.stacks = ThreadLocal.withInitial(() -> new Stack(capacity));
+	}
+
+	/**
+	 * Returns a reset {@code Event} of this {@code EventPool}, which must be released once it has
+	 * been called.
+	 * 
+	 * @return the acquired event
+	 */
+	@SuppressWarnings("unchecked")
+	public E acquire() {
+		E event = null;
+		if (!debugging) {
+			Stack stack = stacks.get();
+			if (stack.size > 0) {
+				event = (E) stack.events[--stack.size];
+				stack.events[stack.size] = null;
+			}
+		}
+		if (event == null)
+			event = factory.get();
+		event.acquired(this);
+		return event;
+	}
+
+	/**
+	 * Recycles the specified {@code event}, which has been released by everything holding it.
+	 */
+	void recycle(Event event) {
+		event.reset();
+		if (debugging) {
+			track(event);
+			return;
+		}
+		Stack stack = stacks.get();
+		if (stack.size < stack.events.length)
+			stack.events[stack.size++] = event;
+	}
+
+	/**
+	 * Enables or disables the debugging of every {@code EventPool}. While debugging, no
+	 * {@code Event} is recycled and any released {@code Event} that is still reachable after being
+	 * released is logged.
+	 * 
+	 * @param debugging
+	 *            true to enable debugging; false to disable it
+	 */
+	public static void setDebugging(boolean debugging) {
+		EventPool.debugging = debugging;
+	}
+
+	/**
+	 * Returns {@code true} if the debugging of every {@code EventPool} is enabled.
+	 * 
+	 * @return true if debugging; return false otherwise
+	 */
+	public static boolean isDebugging() {
+		return debugging;
+	}
+
+	/**
+	 * Keeps track of the specified released {@code event}, and logs every released event still
+	 * reachable after at least two garbage collections since it was released.
+	 */
+	private void track(Event event) {
+		long collections = collections();
+		synchronized (released) {
+			released.add(new Released(event, collections));
+			Iterator<Released> iterator = released.iterator();
+			while (iterator.hasNext()) {
+				Released next = iterator.next();
+				Event retained = next.get();
+				if (retained == null) {
+					iterator.remove();
+				} else if (collections - next.collections >= 2) {
+					iterator.remove();
+					LOGGER.warning(String.format("A released %s is still reachable; it is being held onto after it was released", retained.getClass().getName()));
+				}
+			}
+		}
+	}
+
+	private static long collections() {
+		long collections = 0;
+		for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans())
+			collections += Math.max(0, bean.getCollectionCount());
+		return collections;
+	}
+
+	/**
+	 * The released events kept by a single thread.
+	 */
+	private static final class Stack {
+		private final Event[] events;
+		private int size;
+
+		private Stack(int capacity) {
+			this.events = new Event[capacity];
+		}
+	}
+
+	/**
+	 * A released {@code Event} tracked while debugging.
+	 */
+	private static final class Released extends WeakReference<Event> {
+		private final long collections; // The amount of garbage collections when released
+
+		private Released(Event event, long collections) {
+			super(event);
+			this.collections = collections;
+		}
+	}
+}
@@ -0,0 +1,28 @@
+package event;
+
+/**
+ * The {@code EventRegistration} interface registers every {@code EventMethod} of a single
+ * {@code EventListener} class without reflection. An {@code EventRegistration} is generated at
+ * build time, by the annotation processor of the {@code processor} project, for every listener
+ * class with an {@code EventMethod}, and is named after the binary name of the listener class
+ * followed by {@code $EventRegistration}.
+ * 
+ * <p>
+ * Any listener class without a generated {@code EventRegistration}, such as an anonymous class,
+ * is registered reflectively instead.
+ * 
+ * @author Albert Beaupre
+ * 
+ * @see event.EventManager#registerEventListener(EventListener)
+ */
+public interface EventRegistration {
+
+	/**
+	 * Registers every {@code EventMethod} of the listener of the specified {@code subscription} as
+	 * part of that {@code subscription}.
+	 * 
+	 * @param subscription
+	 *            the subscription to register to
+	 */
+	void register(EventSubscription subscription);
+}
@@ -0,0 +1,153 @@
+package event;
+
+/**
+ * The {@code EventStatistics} class is a snapshot of the calls recorded by an {@code EventMetrics}
+ * for a single {@code Event} class.
+ * 
+ * @author Albert Beaupre
+ * 
+ * @see event.EventMetrics
+ */
+public final class EventStatistics {
+
+	private final Class<? extends Event> eventClass;
+	private final long calls;
+	private final long cancelled;
+	private final long consumed;
+	private final long totalNanos;
+	private final long dropped;
+
+	/**
+	 * Constructs a new {@code EventStatistics} from the specified values.
+	 * 
+	 * @param eventClass
+	 *            the class of the events recorded
+	 * @param calls
+	 *            the amount of times the events were called
+	 * @param cancelled
+	 *            the amount of calls that ended cancelled
+	 * @param consumed
+	 *            the amount of calls that ended consumed
+	 * @param totalNanos
+	 *            the total time the calls took in nanoseconds
+	 */
+	public EventStatistics(Class<? extends Event> eventClass, long calls, long cancelled, long consumed, long totalNanos) {
+		this(eventClass, calls, cancelled, consumed, totalNanos, 0);
+	}
+
+	/**
+	 * Constructs a new {@code EventStatistics} from the specified values.
+	 * 
+	 * @param eventClass
+	 *            the class of the events recorded
+	 * @param calls
+	 *            the amount of times the events were called
+	 * @param cancelled
+	 *            the amount of calls that ended cancelled
+	 * @param consumed
+	 *            the amount of calls that ended consumed
+	 * @param totalNanos
+	 *            the total time the calls took in nanoseconds
+	 * @param dropped
+	 *            the amount of asynchronous calls dropped because their queue was full
+	 */
+	public EventStatistics(Class<? extends Event> eventClass, long calls, long cancelled, long consumed, long totalNanos, long dropped) {
+		this.eventClass = eventClass;
+		this.calls = calls;
+		this.cancelled = cancelled;
+		this.consumed = consumed;
+		this.totalNanos = totalNanos;
+		this.dropped = dropped;
+	}
+
+	/**
+	 * Returns the class of the {@code Event} objects these statistics were recorded for.
+	 * 
+	 * @return the event class
+	 */
+	public Class<? extends Event> getEventClass() {
+		return eventClass;
+	}
+
+	/**
+	 * Returns the amount of times an {@code Event} of this class was called.
+	 * 
+	 * @return the amount of calls
+	 */
+	public long getCalls() {
+		return calls;
+	}
+
+	/**
+	 * Returns the amount of calls that ended with the {@code Event} cancelled.
+	 * 
+	 * @return the amount of cancelled calls
+	 */
+	public long getCancelled() {
+		return cancelled;
+	}
+
+	/**
+	 * Returns the amount of calls that ended with the {@code Event} consumed.
+	 * 
+	 * @return the amount of consumed calls
+	 */
+	public long getConsumed() {
+		return consumed;
+	}
+
+	/**
+	 * Returns the amount of asynchronous calls dropped, without being executed, because the queue of
+	 * their worker stayed full.
+	 * 
+	 * @return the amount of dropped calls
+	 */
+	public long getDropped() {
+		return dropped;
+	}
+
+	/**
+	 * Returns the fraction of calls, from 0 to 1, that ended with the {@code Event} cancelled.
+	 * 
+	 * @return the cancel rate
+	 */
+	public double getCancelRate() {
+		return calls == 0 ? 0 : cancelled / (double) calls;
+	}
+
+	/**
+	 * Returns the fraction of calls, from 0 to 1, that ended with the {@code Event} consumed.
+	 * 
+	 * @return the consume rate
+	 */
+	public double getConsumeRate() {
+		return calls == 0 ? 0 : consumed / (double) calls;
+	}
+
+	/**
+	 * Returns the total time in nanoseconds every call took.
+	 * 
+	 * @return the total time
+	 */
+	public long getTotalNanos() {
+		return totalNanos;
+	}
+
+	/**
+	 * Returns the average time in nanoseconds a call took.
+	 * 
+	 * @return the average time
+	 */
+	public long getAverageNanos() {
+		return calls == 0 ? 0 : totalNanos / calls;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	public String toString() {
+		return String.format("%s[calls=%s, total=%sns, average=%sns, cancelled=%.2f%%, consumed=%.2f%%, dropped=%s]", eventClass.getName(), calls, totalNanos, getAverageNanos(), getCancelRate() * 100, getConsumeRate() * 100, dropped);
+	}
+}
@@ -0,0 +1,156 @@
+package event;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+
+/**
+ * The {@code EventSubscription} class is returned by every {@code register} method of an
+ * {@code EventManager} and holds the executors that were registered by it, so they can be
+ * unregistered by {@link #unregister()} without searching for them.
+ *
+ * <p>
+ * Unregistering an {@code EventSubscription} takes constant time for each of its executors: they are
+ * flagged as removed and skipped from then on, and are removed from the dispatch tables of the
+ * {@code EventManager} in batches.
+ *
+ * <p>
+ * An {@code EventSubscription} of a weak listener, registered by
+ * {@link EventManager#registerWeakEventListener(EventListener)}, does not keep its listener from
+ * being garbage collected, and unregisters itself once its listener has been collected.
+ *
+ * <p>
+ * <b>Example: This will register an area listener for as long as a minigame is running</b>
+ *
+ * <pre>
+ * EventSubscription subscription = GlobalVariables.getEventManager().registerEventListener(minigameListener);
+ *
+ * // Once the minigame has ended
+ * subscription.unregister();
+ * </pre>
+ *
+ * @author Albert Beaupre
+ *
+ * @see event.EventManager
+ */
+public final class EventSubscription {
+
+	final EventManager manager;
+	private final EventListener listener; // The listener, or null if weak or a consumer
+	private final WeakListener weakListener; // The weak listener, or null if not weak
+	private final ArrayList<EventExecutor> executors = new ArrayList<>(2);
+	private boolean registered = true;
+
+	/**
+	 * Constructs a new {@code EventSubscription} to the specified {@code manager} for the specified
+	 * {@code listener}, which is referenced weakly if {@code weak} is true.
+	 */
+	EventSubscription(EventManager manager, EventListener listener, boolean weak) {
+		this.manager = manager;
+		this.listener = weak ? null : listener;
+		this.weakListener = weak ? new WeakListener(listener, this, manager.collected) : null;
+	}
+
+	/**
+	 * Registers an {@code EventMethod} named by the specified {@code name} of the listener of this
+	 * {@code EventSubscription}, which is called by the specified {@code invoker}, to listen for the
+	 * specified {@code eventClazz}. This method is called by a generated {@code EventRegistration}.
+	 *
+	 * @param eventClazz
+	 *            the class of the event the method listens for
+	 * @param priority
+	 *            the priority of the method
+	 * @param name
+	 *            the name of the method
+	 * @param invoker
+	 *            the invoker calling the method directly
+	 */
+	public void registerInvoker(Class<?> eventClazz, EventPriority priority, String name, EventInvoker invoker) {
+		MethodExecutor methodExecutor = weakListener == null ? new MethodExecutor(listener, name, invoker) : new MethodExecutor(weakListener, name, invoker);
+		methodExecutor.setPriority(priority);
+		register(eventClazz, methodExecutor);
+	}
+
+	/**
+	 * Registers the specified {@code EventMethod} of the listener of this {@code EventSubscription},
+	 * found by reflection, to listen for the event class of its parameter.
+	 */
+	void registerMethod(Method method) {
+		MethodExecutor methodExecutor = weakListener == null ? new MethodExecutor(listener, method) : new MethodExecutor(weakListener, method);
+		methodExecutor.setPriority(method.getAnnotation(EventMethod.class).priority());
+		register(method.getParameterTypes()[0], methodExecutor);
+	}
+
+	/**
+	 * Registers the specified {@code executor} to listen for the specified {@code eventClazz} as part
+	 * of this {@code EventSubscription}.
+	 */
+	synchronized void register(Class<?> eventClazz, EventExecutor executor) {
+		if (!registered)
+			return;
+		manager.register(eventClazz, executor);
+		executors.add(executor);
+	}
+
+	/**
+	 * Unregisters every executor registered by this {@code EventSubscription}, so none of them is
+	 * executed for any {@code Event} called from then on. Unregistering an {@code EventSubscription}
+	 * more than once does nothing.
+	 */
+	public void unregister() {
+		int removed;
+		synchronized (this) {
+			if (!registered)
+				return;
+			registered = false;
+			for (EventExecutor executor : executors)
+				executor.remove();
+			removed = executors.size();
+			executors.clear();
+		}
+		manager.removed(removed);
+	}
+
+	/**
+	 * Returns {@code true} if this {@code EventSubscription} has not been unregistered.
+	 *
+	 * @return true if registered; return false otherwise
+	 */
+	public synchronized boolean isRegistered() {
+		return registered;
+	}
+
+	/**
+	 * Returns the {@code EventListener} of this {@code EventSubscription}, or null if it was
+	 * registered for a consumer or its weak listener has been garbage collected.
+	 *
+	 * @return the listener
+	 */
+	public EventListener getListener() {
+		return weakListener == null ? listener : weakListener.get();
+	}
+
+	/**
+	 * Returns {@code true} if the listener of this {@code EventSubscription} is referenced weakly.
+	 *
+	 * @return true if weak; return false otherwise
+	 */
+	public boolean isWeak() {
+		return weakListener != null;
+	}
+
+	/**
+	 * References the listener of a weak {@code EventSubscription}, which is unregistered once the
+	 * listener has been garbage collected.
+	 */
+	static final class WeakListener extends WeakReference<EventListener> {
+
+		final EventSubscription subscription;
+
+		private WeakListener(EventListener listener, EventSubscription subscription, ReferenceQueue<EventListener> queue) {
+			super(listener, queue);
+			this.subscription = subscription;
+		}
+	}
+}
@@ -0,0 +1,104 @@
+package event;
+
+/**
+ * The {@code ExecutorStatistics} class is a snapshot of the executions recorded by an
+ * {@code EventMetrics} for a single {@code EventExecutor}.
+ * 
+ * @author Albert Beaupre
+ * 
+ * @see event.EventMetrics
+ */
+public final class ExecutorStatistics {
+
+	private final String executor;
+	private final EventPriority priority;
+	private final long invocations;
+	private final long totalNanos;
+	private final long maxNanos;
+
+	/**
+	 * Constructs a new {@code ExecutorStatistics} from the specified values.
+	 * 
+	 * @param executor
+	 *            the description of the executor recorded
+	 * @param priority
+	 *            the priority of the executor
+	 * @param invocations
+	 *            the amount of times the executor was executed
+	 * @param totalNanos
+	 *            the total time the executions took in nanoseconds
+	 * @param maxNanos
+	 *            the longest time a single execution took in nanoseconds
+	 */
+	public ExecutorStatistics(String executor, EventPriority priority, long invocations, long totalNanos, long maxNanos) {
+		this.executor = executor;
+		this.priority = priority;
+		this.invocations = invocations;
+		this.totalNanos = totalNanos;
+		this.maxNanos = maxNanos;
+	}
+
+	/**
+	 * Returns the description of the {@code EventExecutor}, which is the listener class and method
+	 * name of an {@code EventMethod}.
+	 * 
+	 * @return the executor description
+	 */
+	public String getExecutor() {
+		return executor;
+	}
+
+	/**
+	 * Returns the priority of the {@code EventExecutor}.
+	 * 
+	 * @return the priority
+	 */
+	public EventPriority getPriority() {
+		return priority;
+	}
+
+	/**
+	 * Returns the amount of times the {@code EventExecutor} was executed.
+	 * 
+	 * @return the amount of invocations
+	 */
+	public long getInvocations() {
+		return invocations;
+	}
+
+	/**
+	 * Returns the total time in nanoseconds every execution took.
+	 * 
+	 * @return the total time
+	 */
+	public long getTotalNanos() {
+		return totalNanos;
+	}
+
+	/**
+	 * Returns the longest time in nanoseconds a single execution took.
+	 * 
+	 * @return the longest time
+	 */
+	public long getMaxNanos() {
+		return maxNanos;
+	}
+
+	/**
+	 * Returns the average time in nanoseconds an execution took.
+	 * 
+	 * @return the average time
+	 */
+	public long getAverageNanos() {
+		return invocations == 0 ? 0 : totalNanos / invocations;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	public String toString() {
+		return String.format("%s[priority=%s, invocations=%s, total=%sns, average=%sns, max=%sns]", executor, priority, invocations, totalNanos, getAverageNanos(), maxNanos);
+	}
+}
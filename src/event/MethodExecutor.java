@@ -1,17 +1,54 @@
 package event;
 
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Used to execute a {@code Method} when an {@code EventListener} has listened to the call of an
  * {@code Event}.
  * 
+ * <p>
+ * The {@code Method} is not invoked reflectively. An {@code EventInvoker} calling the method
+ * directly is generated through the {@code LambdaMetafactory} the first time a
+ * {@code MethodExecutor} is constructed for the method, and is shared by every later
+ * {@code MethodExecutor} of the same method; if that is not possible, the invoker falls back to a
+ * {@code MethodHandle} of the method. A {@code MethodExecutor} registered by a generated {@code EventRegistration} is given
+ * an {@code EventInvoker} calling the method directly instead.
+ * 
+ * <p>
+ * A {@code MethodExecutor} of a weak listener does nothing once its listener has been garbage
+ * collected.
+ * 
  * @author Albert
  */
 public class MethodExecutor extends EventExecutor {
-	
-	private final EventListener listener;
-	private final Method method;
+
+	private static final MethodType INVOKER_TYPE = MethodType.methodType(void.class, EventListener.class, Event.class);
+
+	/**
+	 * The invokers generated for the methods of each declaring class, which are dropped along with
+	 * the class once it is unloaded.
+	 */
+	private static final ClassValue<ConcurrentHashMap<Method, EventInvoker>> INVOKERS = new ClassValue<ConcurrentHashMap<Method, EventInvoker>>() {
+		@Override
+		protected ConcurrentHashMap<Method, EventInvoker> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<>();
+		}
+	};
+
+	private final EventListener listener; // The listener, or null if referenced weakly
+	private final WeakReference<EventListener> weakListener; // The weak listener, or null if not weak
+	private final Class<?> listenerClass;
+	private final Method method; // The method executed, or null if given an invoker
+	private final String name;
+	private final EventInvoker invoker;
 
 	/**
 	 * Constructs a new {@code EventExecutor} with the specified {@code listener} that uses the
@@ -23,8 +60,47 @@ public class MethodExecutor extends EventExecutor {
 	 *            the method to use for execution
 	 */
 	public MethodExecutor(EventListener listener, Method method) {
+		this(listener, null, listener.getClass(), method, method.getName(), invokerOf(method));
+	}
+
+	/**
+	 * Constructs a new {@code EventExecutor} with the specified {@code listener} that uses the
+	 * specified {@code invoker} to call the method named by the specified {@code name}.
+	 * 
+	 * @param listener
+	 *            the event listener with the underlying method
+	 * @param name
+	 *            the name of the method
+	 * @param invoker
+	 *            the invoker calling the method directly
+	 */
+	public MethodExecutor(EventListener listener, String name, EventInvoker invoker) {
+		this(listener, null, listener.getClass(), null, name, invoker);
+	}
+
+	/**
+	 * Constructs a new {@code EventExecutor} with the specified weakly referenced {@code listener}
+	 * that uses the specified {@code method} for execution.
+	 */
+	MethodExecutor(WeakReference<EventListener> listener, Method method) {
+		this(null, listener, listener.get().getClass(), method, method.getName(), invokerOf(method));
+	}
+
+	/**
+	 * Constructs a new {@code EventExecutor} with the specified weakly referenced {@code listener}
+	 * that uses the specified {@code invoker} to call the method named by the specified {@code name}.
+	 */
+	MethodExecutor(WeakReference<EventListener> listener, String name, EventInvoker invoker) {
+		this(null, listener, listener.get().getClass(), null, name, invoker);
+	}
+
+	private MethodExecutor(EventListener listener, WeakReference<EventListener> weakListener, Class<?> listenerClass, Method method, String name, EventInvoker invoker) {
 		this.listener = listener;
+		this.weakListener = weakListener;
+		this.listenerClass = listenerClass;
 		this.method = method;
+		this.name = name;
+		this.invoker = invoker;
 	}
 
 	/**
@@ -36,25 +112,96 @@ public class MethodExecutor extends EventExecutor {
 	 */
 	@Override
 	public void execute(Event event) {
+		EventListener listener = this.listener;
+		if (listener == null && (listener = weakListener.get()) == null)
+			return;
 		try {
-			method.invoke(listener, event);
+			invoker.invoke(listener, event);
 		} catch (Throwable throwable) {
 			throwable.printStackTrace();
 		}
 	}
 
+	/**
+	 * Returns the {@code Method} executed by this {@code MethodExecutor}, or null if it was
+	 * constructed with an {@code EventInvoker}.
+	 * 
+	 * @return the method
+	 */
+	public Method getMethod() {
+		return method;
+	}
+
+	/**
+	 * Returns the {@code EventInvoker} of the specified {@code method}, generating it the first time
+	 * the method is executed by a {@code MethodExecutor}.
+	 */
+	private static EventInvoker invokerOf(Method method) {
+		ConcurrentHashMap<Method, EventInvoker> invokers = INVOKERS.get(method.getDeclaringClass());
+		EventInvoker invoker = invokers.get(method);
+		return invoker == null ? invokers.computeIfAbsent(method, MethodExecutor::createInvoker) : invoker;
+	}
+
+	/**
+	 * Generates an {@code EventInvoker} that calls the specified {@code method} directly. If the
+	 * {@code LambdaMetafactory} cannot generate it, the invoker uses a {@code MethodHandle} of the
+	 * method instead, and if the method cannot be unreflected at all, it is invoked reflectively.
+	 * 
+	 * @param method
+	 *            the method to invoke
+	 * @return the invoker of the method
+	 */
+	private static EventInvoker createInvoker(Method method) {
+		MethodHandles.Lookup lookup;
+		MethodHandle handle;
+		try {
+			lookup = MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup());
+			handle = lookup.unreflect(method);
+		} catch (IllegalAccessException | SecurityException e) {
+			try {
+				lookup = null;
+				handle = MethodHandles.lookup().unreflect(method);
+			} catch (IllegalAccessException e1) {
+				return method::invoke;
+			}
+		}
+
+		if (lookup != null && !Modifier.isStatic(method.getModifiers())) {
+			try {
+				CallSite site = LambdaMetafactory.metafactory(lookup, "invoke", MethodType.methodType(EventInvoker.class), INVOKER_TYPE, handle, handle.type().changeReturnType(void.class));
+				return (EventInvoker) site.getTarget().invokeExact();
+			} catch (Throwable throwable) {
+				// The method is not linkable by a lambda, so the MethodHandle is used instead
+			}
+		}
+
+		if (Modifier.isStatic(method.getModifiers()))
+			handle = MethodHandles.dropArguments(handle, 0, EventListener.class);
+		MethodHandle target = handle.asType(INVOKER_TYPE);
+		return (listener, event) -> {
+			target.invokeExact(listener, event);
+		};
+	}
+
+	@Override
+	public String describe() {
+		return (method == null ? listenerClass : method.getDeclaringClass()).getName() + "#" + name;
+	}
+
 	@Override
 	public boolean equals(Object obj) {
-		return listener.equals(obj);
+		EventListener listener = this.listener == null ? weakListener.get() : this.listener;
+		return listener != null && listener.equals(obj);
 	}
 
 	@Override
 	public int hashCode() {
-		return listener.hashCode();
+		EventListener listener = this.listener == null ? weakListener.get() : this.listener;
+		return listener == null ? 0 : listener.hashCode();
 	}
 
 	@Override
 	public String toString() {
-		return listener.getClass().getSimpleName();
+		return listenerClass.getSimpleName();
 	}
 }
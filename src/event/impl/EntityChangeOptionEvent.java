@@ -6,7 +6,7 @@ import event.Event;
 import lombok.Getter;
 
 @Getter
-public class EntityChangeOptionEvent extends Event {
+public class EntityChangeOptionEvent extends Event implements EntityEvent {
 
 	private final Entity entity;
 	private final EntityOption from;
@@ -0,0 +1,20 @@
+package event.impl;
+
+import entity.Entity;
+
+/**
+ * The {@code EntityEvent} interface is implemented by any {@code Event} happening to a single
+ * {@code Entity}, so it can be listened for on that {@code Entity} alone by
+ * {@link event.EventManager#registerEntityEvent(Entity, Class, java.util.function.Consumer)}.
+ * 
+ * @author Albert Beaupre
+ */
+public interface EntityEvent {
+
+	/**
+	 * Returns the {@code Entity} this event is happening to.
+	 * 
+	 * @return the entity
+	 */
+	Entity getEntity();
+}
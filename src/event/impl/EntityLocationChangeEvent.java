@@ -4,14 +4,19 @@ import entity.Entity;
 import entity.geometry.Location;
 import entity.geometry.map.AreaChangeType;
 import event.Event;
+import event.EventPool;
 import lombok.Getter;
 
 @Getter
-public class EntityLocationChangeEvent extends Event {
+public class EntityLocationChangeEvent extends Event implements EntityEvent {
 
-	private final Entity entity;
-	private final AreaChangeType type;
-	private final Location currentLocation, previousLocation;
+	private static final EventPool<EntityLocationChangeEvent> POOL = new EventPool<>(EntityLocationChangeEvent::new);
+
+	private Entity entity;
+	private AreaChangeType type;
+	private Location currentLocation, previousLocation;
+
+	private EntityLocationChangeEvent() {}
 
 	public EntityLocationChangeEvent(Entity entity, AreaChangeType type, Location current, Location previous) {
 		this.entity = entity;
@@ -19,4 +24,35 @@ public class EntityLocationChangeEvent extends Event {
 		this.currentLocation = current;
 		this.previousLocation = previous;
 	}
+
+	/**
+	 * Acquires a pooled {@code EntityLocationChangeEvent} with the specified values, which must be
+	 * released once it has been called.
+	 * 
+	 * @param entity
+	 *            the entity changing location
+	 * @param type
+	 *            the way the entity is changing location
+	 * @param current
+	 *            the location the entity is changing to
+	 * @param previous
+	 *            the location the entity is changing from
+	 * @return the acquired event
+	 */
+	public static EntityLocationChangeEvent acquire(Entity entity, AreaChangeType type, Location current, Location previous) {
+		EntityLocationChangeEvent event = POOL.acquire();
+		event.entity = entity;
+		event.type = type;
+		event.currentLocation = current;
+		event.previousLocation = previous;
+		return event;
+	}
+
+	@Override
+	protected void reset() {
+		super.reset();
+		this.entity = null;
+		this.type = null;
+		this.currentLocation = this.previousLocation = null;
+	}
 }
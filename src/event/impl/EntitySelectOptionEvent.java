@@ -3,18 +3,61 @@ package event.impl;
 import entity.Entity;
 import entity.EntityOption;
 import event.Event;
+import event.EventPool;
 import lombok.Getter;
 
 @Getter
-public class EntitySelectOptionEvent extends Event {
+public class EntitySelectOptionEvent extends Event implements EntityEvent {
 
-	private final Entity interactor;
-	private final Entity target;
-	private final EntityOption entityOption;
+	private static final EventPool<EntitySelectOptionEvent> POOL = new EventPool<>(EntitySelectOptionEvent::new);
+
+	private Entity interactor;
+	private Entity target;
+	private EntityOption entityOption;
+
+	private EntitySelectOptionEvent() {}
 
 	public EntitySelectOptionEvent(Entity interactor, Entity target, EntityOption entityOption) {
 		this.interactor = interactor;
 		this.target = target;
 		this.entityOption = entityOption;
 	}
+
+	/**
+	 * Acquires a pooled {@code EntitySelectOptionEvent} with the specified values, which must be
+	 * released once it has been called.
+	 * 
+	 * @param interactor
+	 *            the entity selecting the option
+	 * @param target
+	 *            the entity the option is selected on
+	 * @param entityOption
+	 *            the option selected
+	 * @return the acquired event
+	 */
+	public static EntitySelectOptionEvent acquire(Entity interactor, Entity target, EntityOption entityOption) {
+		EntitySelectOptionEvent event = POOL.acquire();
+		event.interactor = interactor;
+		event.target = target;
+		event.entityOption = entityOption;
+		return event;
+	}
+
+	/**
+	 * Returns the {@code Entity} the option is selected on, so the selection can be listened for on
+	 * that {@code Entity} alone.
+	 * 
+	 * @return the target
+	 */
+	@Override
+	public Entity getEntity() {
+		return target;
+	}
+
+	@Override
+	protected void reset() {
+		super.reset();
+		this.interactor = this.target = null;
+		this.entityOption = null;
+	}
 }
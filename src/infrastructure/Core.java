@@ -14,6 +14,7 @@ import org.pf4j.DefaultPluginManager;
 import org.pf4j.PluginManager;
 
 import cache.Cache;
+import entity.actor.ActionProcessor;
 import entity.actor.model.ModelUpdater;
 import event.EventManager;
 import infrastructure.threads.TickThread;
@@ -56,6 +57,7 @@ public class Core {
 			GlobalVariables.setTicker(new TickThread());
 			GlobalVariables.setEventManager(new EventManager());
 			GlobalVariables.setModelUpdater(new ModelUpdater());
+			GlobalVariables.setActionProcessor(new ActionProcessor());
 			GlobalVariables.setPluginManager(new DefaultPluginManager(Paths.get("./plugins/")));
 			PluginManager pluginManager = GlobalVariables.getPluginManager();
 			pluginManager.loadPlugins();
@@ -8,8 +8,12 @@ import java.util.logging.Logger;
 import org.pf4j.PluginLoader;
 import org.pf4j.PluginManager;
 
+import entity.actor.ActionProcessor;
 import entity.actor.model.ModelUpdater;
 import event.EventManager;
+import infrastructure.threads.CyclePhase;
+import infrastructure.threads.GameCycleThread;
+import infrastructure.threads.ModelUpdaterThread;
 import infrastructure.threads.TickThread;
 import io.netty.util.AttributeKey;
 import network.World;
@@ -30,16 +34,21 @@ public class GlobalVariables {
 	private static final HashMap<String, Object> CONSTANTS = new HashMap<>();
 
 	private static TickThread TICKER;
+	private static GameCycleThread GAME_CYCLE;
 	private static EventManager EVENT_MANAGER;
 	private static PluginManager PLUGIN_MANAGER;
 	private static ModelUpdater MODEL_UPDATER;
+	private static ModelUpdaterThread MODEL_UPDATER_THREAD;
+	private static ActionProcessor ACTION_PROCESSOR;
 
 	private static boolean DEBUGGING = true;
 
 	private static boolean isaacEnabled;
 
 	/**
-	 * Sets the specified {@code ticker} to this {@code GlobalVariables} class.
+	 * Sets the specified {@code ticker} to this {@code GlobalVariables} class and schedules it to run
+	 * every millisecond. If a {@code GameCycleThread} has already been set, then every {@code Tick}
+	 * that is not real-time is executed during its {@link CyclePhase#LOGIC} phase instead.
 	 * 
 	 * @param tickThread
 	 *            the ticker to set
@@ -51,8 +60,63 @@ public class GlobalVariables {
 		}
 		GlobalVariables.TICKER = Objects.requireNonNull(tickThread, "The TickThread cannot be set as NULL");
 		Core.scheduleFixedTask(TICKER, 0, 1, TimeUnit.MILLISECONDS);
+		if (GlobalVariables.GAME_CYCLE != null)
+			GlobalVariables.GAME_CYCLE.setTicker(tickThread);
 		LOGGER.info("A TickThread has successfully been set");
 	}
+
+	/**
+	 * Sets the specified {@code gameCycle} to this {@code GlobalVariables} class and starts it. If a
+	 * {@code TickThread} has already been set, then every {@code Tick} that is not real-time is
+	 * executed during the {@link CyclePhase#LOGIC} phase from then on. If an
+	 * {@code ActionProcessor} has already been set, then it is executed by the {@code GameCycleThread}
+	 * every game cycle instead of being queued on its own, and if a cycled
+	 * {@code ModelUpdaterThread} has already been set, then it is executed during the
+	 * {@link CyclePhase#UPDATE} phase.
+	 * 
+	 * @param gameCycle
+	 *            the game cycle to set
+	 */
+	public static void setGameCycle(GameCycleThread gameCycle) {
+		if (GlobalVariables.GAME_CYCLE != null) {
+			LOGGER.warning("A GameCycleThread has already been set");
+			return;
+		}
+		GlobalVariables.GAME_CYCLE = Objects.requireNonNull(gameCycle, "The GameCycleThread cannot be set as NULL");
+		if (GlobalVariables.TICKER != null)
+			gameCycle.setTicker(TICKER);
+		if (GlobalVariables.ACTION_PROCESSOR != null) {
+			GlobalVariables.ACTION_PROCESSOR.cancel();
+			gameCycle.register(CyclePhase.LOGIC, ACTION_PROCESSOR::tick);
+		}
+		if (GlobalVariables.MODEL_UPDATER_THREAD != null && MODEL_UPDATER_THREAD.isCycled())
+			gameCycle.register(CyclePhase.UPDATE, MODEL_UPDATER_THREAD::run);
+		gameCycle.start();
+		LOGGER.info("A GameCycleThread has successfully been set");
+	}
+
+	/**
+	 * Returns the {@code GameCycleThread} that has been set to this {@code GlobalVariables} class.
+	 * 
+	 * @throws NullPointerException
+	 *             if the {@code GameCycleThread} of this class is {@code null}
+	 * 
+	 * @return the {@code GameCycleThread} that has been set
+	 */
+	public static GameCycleThread getGameCycle() {
+		if (GlobalVariables.GAME_CYCLE == null)
+			throw new NullPointerException("There is not a GameCycleThread set");
+		return GlobalVariables.GAME_CYCLE;
+	}
+
+	/**
+	 * Returns true if a {@code GameCycleThread} has been set to this {@code GlobalVariables} class.
+	 * 
+	 * @return true if a game cycle has been set; return false otherwise
+	 */
+	public static boolean hasGameCycle() {
+		return GlobalVariables.GAME_CYCLE != null;
+	}
 	
 	/**
 	 * Returns the {@code TickThread} that has been set to this {@code GlobalVariables} class that will
@@ -147,6 +211,79 @@ public class GlobalVariables {
 		return GlobalVariables.MODEL_UPDATER;
 	}
 
+	/**
+	 * Sets the specified {@code updater} to this {@code GlobalVariables} class. If the updater is
+	 * cycled, then it is executed during the {@link CyclePhase#UPDATE} phase of the
+	 * {@code GameCycleThread} once one has been set.
+	 * 
+	 * @param updater
+	 *            the {@code ModelUpdaterThread} to set
+	 */
+	public static void setModelUpdaterThread(ModelUpdaterThread updater) {
+		if (GlobalVariables.MODEL_UPDATER_THREAD != null) {
+			LOGGER.warning("A ModelUpdaterThread has already been set");
+			return;
+		}
+		GlobalVariables.MODEL_UPDATER_THREAD = Objects.requireNonNull(updater, "The ModelUpdaterThread cannot be set as NULL");
+		LOGGER.info("A ModelUpdaterThread has successfully been set");
+
+		if (GlobalVariables.GAME_CYCLE != null && updater.isCycled())
+			GlobalVariables.GAME_CYCLE.register(CyclePhase.UPDATE, updater::run);
+	}
+
+	/**
+	 * Returns the {@code ModelUpdaterThread} that has been set to this {@code GlobalVariables} class.
+	 * 
+	 * @throws NullPointerException
+	 *             if the {@code ModelUpdaterThread} of this class is {@code null}
+	 * 
+	 * @return the {@code ModelUpdaterThread} that has been set
+	 */
+	public static ModelUpdaterThread getModelUpdaterThread() {
+		if (GlobalVariables.MODEL_UPDATER_THREAD == null)
+			throw new NullPointerException("There is not a ModelUpdaterThread set");
+		return GlobalVariables.MODEL_UPDATER_THREAD;
+	}
+
+	/**
+	 * Sets the specified {@code processor} to this {@code GlobalVariables} class so it may globally
+	 * cycle any {@code ActionQueue}. If a {@code GameCycleThread} has been set, then the processor is
+	 * executed during its {@link CyclePhase#LOGIC} phase; otherwise it is queued to execute every game
+	 * cycle.
+	 * 
+	 * @param processor
+	 *            the {@code ActionProcessor} to set
+	 */
+	public static void setActionProcessor(ActionProcessor processor) {
+		if (GlobalVariables.ACTION_PROCESSOR != null) {
+			LOGGER.warning("An ActionProcessor has already been set");
+			return;
+		}
+		GlobalVariables.ACTION_PROCESSOR = Objects.requireNonNull(processor, "The ActionProcessor cannot be set as NULL");
+		LOGGER.info("An ActionProcessor has successfully been set");
+
+		if (GlobalVariables.GAME_CYCLE != null) {
+			GlobalVariables.GAME_CYCLE.register(CyclePhase.LOGIC, processor::tick);
+		} else {
+			processor.queue(GameCycleThread.CYCLE_PERIOD);
+		}
+	}
+
+	/**
+	 * Returns the {@code ActionProcessor} that has been set to this {@code GlobalVariables} class that
+	 * will globally cycle any {@code ActionQueue}.
+	 * 
+	 * @throws NullPointerException
+	 *             if the {@code ActionProcessor} of this class is {@code null}
+	 * 
+	 * @return the {@code ActionProcessor} that has been set
+	 */
+	public static ActionProcessor getActionProcessor() {
+		if (GlobalVariables.ACTION_PROCESSOR == null)
+			throw new NullPointerException("There is not an ActionProcessor set");
+		return GlobalVariables.ACTION_PROCESSOR;
+	}
+
 	/**
 	 * Sets the debugging flag for the server to the given {@code debugging} paramter.
 	 * 
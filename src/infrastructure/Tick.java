@@ -15,14 +15,60 @@ package infrastructure;
  * }.queue(<u><b>10000</b></u>);
  * </pre>
  * 
+ * <p>
+ * Once a {@code GameCycleThread} runs the {@code TickThread}, a {@code Tick} is executed during the
+ * {@link infrastructure.threads.CyclePhase#LOGIC} phase of the first game cycle it is due by, on the
+ * same thread as the rest of the game logic. Only a {@code Tick} constructed as real-time keeps the
+ * millisecond schedule of the {@code TickThread}, and must therefore not touch any state the game
+ * logic touches.
+ * 
  * @author Albert Beaupre
  */
 public abstract class Tick {
 
-	private boolean queued; // The flag that checks if this Tick has been queued for execution
-	private boolean cancelled; // The flag that checks if this Tick has been cancelled so it cannot be executed anymore
-	private long startedTicking; // The time when this Tick has started tracking its duration
-	private long period; // The time period of delay before it will be executed
+	/**
+	 * The shard of any {@code Tick} that touches shared state. A {@code Tick} within this shard is
+	 * never executed at the same time as any other {@code Tick}.
+	 */
+	public static final int GLOBAL_SHARD = -1;
+
+	private volatile boolean queued; // The flag that checks if this Tick has been queued for execution
+	private volatile boolean cancelled; // The flag that checks if this Tick has been cancelled so it cannot be executed anymore
+	private long startedTicking; // The time when this Tick has started tracking its duration, only set by the thread ticking it
+	private volatile long period; // The time period of delay before it will be executed
+	private volatile int shard = GLOBAL_SHARD; // The shard this Tick is executed within
+	private final boolean realTime; // The flag that checks if this Tick keeps the millisecond schedule of the TickThread
+
+	/*
+	 * These values are only used by the TickWheel this Tick is scheduled within.
+	 */
+	long deadline; // The time at which this Tick is due for execution
+	int wheelLevel = -1, wheelSlot = -1; // The slot of the TickWheel this Tick is linked to
+	Tick next, previous; // The neighbouring Ticks linked to the same slot
+
+	/*
+	 * These values are only used by the TickSubmissionQueue this Tick is submitted to.
+	 */
+	volatile int submitted; // The flag that checks if this Tick is waiting to be drained
+	Tick nextSubmitted; // The Tick submitted before this Tick
+
+	/**
+	 * Constructs a new {@code Tick} executed along with the game logic.
+	 */
+	protected Tick() {
+		this(false);
+	}
+
+	/**
+	 * Constructs a new {@code Tick} that, if {@code realTime}, keeps the millisecond schedule of the
+	 * {@code TickThread} instead of being executed along with the game logic.
+	 * 
+	 * @param realTime
+	 *            true to execute this tick on the millisecond schedule of the {@code TickThread}
+	 */
+	protected Tick(boolean realTime) {
+		this.realTime = realTime;
+	}
 
 	/**
 	 * Executes this {@code Tickable} after the {@link #queue(long)} method has been called and the
@@ -38,6 +84,26 @@ public abstract class Tick {
 		this.startedTicking = System.currentTimeMillis();
 	}
 
+	/**
+	 * Starts a period of time at which this {@code Tick} has started updating from the specified
+	 * {@code time}, so the current time does not need to be fetched for every {@code Tick} executed.
+	 * 
+	 * @param time
+	 *            the time in milliseconds this {@code Tick} has started updating
+	 */
+	void startTicking(long time) {
+		this.startedTicking = time;
+	}
+
+	/**
+	 * Returns the time in milliseconds at which this {@code Tick} has last started updating.
+	 * 
+	 * @return the time this tick started updating
+	 */
+	long getStartedTicking() {
+		return startedTicking;
+	}
+
 	/**
 	 * Returns the period at which this {@code Tick} delays before its next update.
 	 * 
@@ -47,6 +113,41 @@ public abstract class Tick {
 		return period;
 	}
 
+	/**
+	 * Returns true if this {@code Tick} keeps the millisecond schedule of the {@code TickThread} even
+	 * once a {@code GameCycleThread} runs it.
+	 * 
+	 * @return true if real-time; return false otherwise
+	 */
+	public boolean isRealTime() {
+		return realTime;
+	}
+
+	/**
+	 * Sets the shard this {@code Tick} is executed within to the specified {@code shard}, such as the
+	 * index of the {@code Entity} owning this {@code Tick} or the id of the region it acts upon. Any
+	 * {@code Tick} objects within the same shard are executed one after another in the order they are
+	 * due, while different shards may be executed in parallel by a {@code TickThread}.
+	 * 
+	 * <p>
+	 * A {@code Tick} is within the {@link #GLOBAL_SHARD} by default.
+	 * 
+	 * @param shard
+	 *            the shard to set
+	 */
+	public void setShard(int shard) {
+		this.shard = shard;
+	}
+
+	/**
+	 * Returns the shard this {@code Tick} is executed within.
+	 * 
+	 * @return the shard
+	 */
+	public int getShard() {
+		return shard;
+	}
+
 	/**
 	 * Returns the length in milliseconds that this {@code Tick} has been waiting to be executed.
 	 * 
@@ -57,7 +158,9 @@ public abstract class Tick {
 	}
 
 	/**
-	 * Queues this {@code Tickable} for execution after the specified {@code period} has passed.
+	 * Queues this {@code Tickable} for execution after the specified {@code period} has passed. If
+	 * this {@code Tick} is already queued, then the new {@code period} is used once it has next been
+	 * executed.
 	 * 
 	 * @param period
 	 *            the period before this tickable will queued for execution.
@@ -66,9 +169,9 @@ public abstract class Tick {
 		this.period = period;
 		if (queued)
 			return;
-		GlobalVariables.getTicker().queue(this);
 		queued = true;
 		cancelled = false;
+		GlobalVariables.getTicker().queue(this);
 	}
 
 	/**
@@ -92,11 +195,15 @@ public abstract class Tick {
 	}
 
 	/**
-	 * Cancels this {@code Tick} from being queued or executed.
+	 * Cancels this {@code Tick} from being queued or executed. If this {@code Tick} has been queued,
+	 * then the {@code TickThread} it was queued to will unschedule it on its next run.
 	 */
 	public void cancel() {
+		boolean wasQueued = queued;
 		cancelled = true;
 		queued = false;
+		if (wasQueued)
+			GlobalVariables.getTicker().cancel(this);
 	}
 
 	/**
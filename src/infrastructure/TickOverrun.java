@@ -0,0 +1,101 @@
+package infrastructure;
+
+/**
+ * The {@code TickOverrun} class records a single execution of a {@code Tick} that has exceeded the
+ * budget of a {@code TickProfiler}.
+ *
+ * @author Albert Beaupre
+ *
+ * @see infrastructure.TickProfiler
+ */
+public final class TickOverrun {
+
+	private final Class<? extends Tick> tickClass;
+	private final long time;
+	private final long nanos;
+	private final String threadName;
+	private final StackTraceElement[] stackSample;
+
+	/**
+	 * Constructs a new {@code TickOverrun} from the specified values.
+	 *
+	 * @param tickClass
+	 *            the class of the tick that overran
+	 * @param time
+	 *            the time in milliseconds the tick started executing
+	 * @param nanos
+	 *            the time in nanoseconds the execution took
+	 * @param threadName
+	 *            the name of the thread executing the tick
+	 * @param stackSample
+	 *            the stack of the thread sampled while the tick was over budget, or null if it was
+	 *            not sampled in time
+	 */
+	public TickOverrun(Class<? extends Tick> tickClass, long time, long nanos, String threadName, StackTraceElement[] stackSample) {
+		this.tickClass = tickClass;
+		this.time = time;
+		this.nanos = nanos;
+		this.threadName = threadName;
+		this.stackSample = stackSample;
+	}
+
+	/**
+	 * Returns the class of the {@code Tick} that overran.
+	 *
+	 * @return the tick class
+	 */
+	public Class<? extends Tick> getTickClass() {
+		return tickClass;
+	}
+
+	/**
+	 * Returns the time in milliseconds the {@code Tick} started executing.
+	 *
+	 * @return the start time
+	 */
+	public long getTime() {
+		return time;
+	}
+
+	/**
+	 * Returns the time in nanoseconds the execution took.
+	 *
+	 * @return the execution time
+	 */
+	public long getNanos() {
+		return nanos;
+	}
+
+	/**
+	 * Returns the name of the thread that executed the {@code Tick}.
+	 *
+	 * @return the thread name
+	 */
+	public String getThreadName() {
+		return threadName;
+	}
+
+	/**
+	 * Returns the stack of the executing thread sampled while the {@code Tick} was over budget, or
+	 * null if the execution finished before it could be sampled.
+	 *
+	 * @return the stack sample
+	 */
+	public StackTraceElement[] getStackSample() {
+		return stackSample;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Object#toString()
+	 */
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append(String.format("TickOverrun[class=%s, time=%s, nanos=%s, thread=%s]", tickClass.getName(), time, nanos, threadName));
+		if (stackSample != null)
+			for (StackTraceElement element : stackSample)
+				builder.append(System.lineSeparator()).append("\tat ").append(element);
+		return builder.toString();
+	}
+}
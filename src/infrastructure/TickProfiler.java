@@ -0,0 +1,339 @@
+package infrastructure;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * The {@code TickProfiler} class records every execution of a {@code Tick} by a
+ * {@code TickThread}, grouped by the concrete class of the {@code Tick}. For each class, the
+ * amount of invocations, the total and longest execution time, and a latency histogram are
+ * recorded.
+ *
+ * <p>
+ * Any single execution that takes longer than the budget of this {@code TickProfiler} is recorded
+ * as a {@code TickOverrun} and logged. While a {@code Tick} is over budget, the stack of the thread
+ * executing it is sampled so the overrun shows what the {@code Tick} was doing. The stacks are only
+ * sampled while this {@code TickProfiler} is set to a {@code TickWheel}.
+ *
+ * <p>
+ * <b>Example: This will profile the global ticker and flag any tick taking longer than 50ms</b>
+ *
+ * <pre>
+ * TickProfiler profiler = new TickProfiler(50, TimeUnit.MILLISECONDS);
+ * GlobalVariables.getTicker().setProfiler(profiler);
+ *
+ * profiler.dump(new File("./tick-profile.txt"));
+ * </pre>
+ *
+ * @author Albert Beaupre
+ *
+ * @see infrastructure.TickStatistics
+ * @see infrastructure.TickOverrun
+ */
+public final class TickProfiler {
+
+	/**
+	 * The amount of {@code TickOverrun} objects kept by a {@code TickProfiler}. Once this amount has
+	 * been reached, the oldest overrun is discarded for every new overrun.
+	 */
+	public static final int MAX_OVERRUNS = 256;
+
+	private static final Logger LOGGER = Logger.getLogger(TickProfiler.class.getName());
+
+	private final ClassValue<Counter> counters = new ClassValue<Counter>() {
+		@Override
+		@SuppressWarnings("unchecked")
+		protected Counter computeValue(Class<?> type) {
+			Counter counter = new Counter((Class<? extends Tick>) type);
+			registered.add(counter);
+			return counter;
+		}
+	};
+	private final Set<Counter> registered = ConcurrentHashMap.newKeySet();
+	private final ThreadLocal<Execution> executions = ThreadLocal.withInitial(this::createExecution);
+	private final Set<Execution> running = ConcurrentHashMap.newKeySet(); // One per executing thread
+	private final ConcurrentLinkedDeque<TickOverrun> overruns = new ConcurrentLinkedDeque<>();
+	private ScheduledFuture<?> watchdog; // The sampling of the stacks, or null while not set to any TickWheel
+	private int attached; // The amount of TickWheels this TickProfiler is set to
+
+	private volatile long budget; // The budget of a single execution in nanoseconds
+
+	/**
+	 * Constructs a new {@code TickProfiler} that flags any execution of a {@code Tick} that takes
+	 * longer than the specified {@code budget} based on the specified {@code TimeUnit}.
+	 *
+	 * @param budget
+	 *            the budget of a single execution
+	 * @param unit
+	 *            the {@code TimeUnit} at which the budget is calculated
+	 */
+	public TickProfiler(long budget, TimeUnit unit) {
+		if (budget <= 0)
+			throw new IllegalArgumentException("The budget of a TickProfiler must be greater than 0");
+		this.budget = unit.toNanos(budget);
+	}
+
+	/**
+	 * Sets the budget of a single execution of a {@code Tick} to the specified {@code budget} based on
+	 * the specified {@code TimeUnit}.
+	 *
+	 * @param budget
+	 *            the budget to set
+	 * @param unit
+	 *            the {@code TimeUnit} at which the budget is calculated
+	 */
+	public void setBudget(long budget, TimeUnit unit) {
+		if (budget <= 0)
+			throw new IllegalArgumentException("The budget of a TickProfiler must be greater than 0");
+		this.budget = unit.toNanos(budget);
+	}
+
+	/**
+	 * Returns the budget of a single execution of a {@code Tick} in nanoseconds.
+	 *
+	 * @return the budget
+	 */
+	public long getBudgetNanos() {
+		return budget;
+	}
+
+	/**
+	 * Marks the start of the execution of the specified {@code tick} on the current thread. This
+	 * method must be followed by {@link #end(Tick, long)} once the execution has finished.
+	 *
+	 * @param tick
+	 *            the tick being executed
+	 * @return the time in nanoseconds the execution started
+	 */
+	long begin(Tick tick) {
+		Execution execution = executions.get();
+		long start = System.nanoTime();
+		execution.sequence++;
+		execution.start = start;
+		execution.tick = tick;
+		return start;
+	}
+
+	/**
+	 * Records the execution of the specified {@code tick} that started at the specified {@code start}
+	 * time in nanoseconds.
+	 *
+	 * @param tick
+	 *            the tick that was executed
+	 * @param start
+	 *            the time in nanoseconds the execution started
+	 */
+	void end(Tick tick, long start) {
+		long nanos = System.nanoTime() - start;
+		Execution execution = executions.get();
+		execution.tick = null;
+
+		Counter counter = counters.get(tick.getClass());
+		counter.invocations.increment();
+		counter.totalNanos.add(nanos);
+		counter.maxNanos.accumulateAndGet(nanos, Math::max);
+		counter.histogram.incrementAndGet(64 - Long.numberOfLeadingZeros(nanos) & (TickStatistics.HISTOGRAM_SIZE - 1));
+
+		if (nanos > budget) {
+			counter.overruns.increment();
+			StackTraceElement[] sample = execution.sampleSequence == execution.sequence ? execution.sample : null;
+			execution.sample = null;
+
+			TickOverrun overrun = new TickOverrun(tick.getClass(), System.currentTimeMillis() - TimeUnit.NANOSECONDS.toMillis(nanos), nanos, Thread.currentThread().getName(), sample);
+			overruns.addLast(overrun);
+			while (overruns.size() > MAX_OVERRUNS)
+				overruns.pollFirst();
+			LOGGER.warning(String.format("%s took %sms, exceeding the budget of %sms", tick.getClass().getName(), TimeUnit.NANOSECONDS.toMillis(nanos), TimeUnit.NANOSECONDS.toMillis(budget)));
+		}
+	}
+
+	/**
+	 * Returns the {@code TickStatistics} recorded for the specified {@code tickClass}.
+	 *
+	 * @param tickClass
+	 *            the class of the ticks
+	 * @return the statistics recorded for the class
+	 */
+	public TickStatistics getStatistics(Class<? extends Tick> tickClass) {
+		return counters.get(tickClass).snapshot();
+	}
+
+	/**
+	 * Returns the {@code TickStatistics} recorded for every {@code Tick} class that has been executed,
+	 * sorted from the highest total execution time to the lowest.
+	 *
+	 * @return the statistics recorded
+	 */
+	public List<TickStatistics> getStatistics() {
+		List<TickStatistics> statistics = new ArrayList<>(registered.size());
+		for (Counter counter : registered)
+			statistics.add(counter.snapshot());
+		statistics.sort(Comparator.comparingLong(TickStatistics::getTotalNanos).reversed());
+		return statistics;
+	}
+
+	/**
+	 * Returns the most recent {@code TickOverrun} objects recorded by this {@code TickProfiler}, from
+	 * the oldest to the newest.
+	 *
+	 * @return the recent overruns
+	 */
+	public List<TickOverrun> getOverruns() {
+		return new ArrayList<>(overruns);
+	}
+
+	/**
+	 * Resets every statistic and overrun recorded by this {@code TickProfiler}.
+	 */
+	public void reset() {
+		for (Counter counter : registered)
+			counter.reset();
+		overruns.clear();
+	}
+
+	/**
+	 * Writes every statistic and overrun recorded by this {@code TickProfiler} to the specified
+	 * {@code file}.
+	 *
+	 * @param file
+	 *            the file to write to
+	 * @throws IOException
+	 *             if the file could not be written to
+	 */
+	public void dump(File file) throws IOException {
+		try (PrintWriter writer = new PrintWriter(file)) {
+			writer.println(String.format("Tick budget: %sns", budget));
+			writer.println();
+			for (TickStatistics statistics : getStatistics())
+				writer.println(statistics);
+			writer.println();
+			for (TickOverrun overrun : getOverruns())
+				writer.println(overrun);
+		}
+	}
+
+	/**
+	 * Stops this {@code TickProfiler} from sampling the stack of any {@code Tick} that is over budget.
+	 * Executions are still recorded.
+	 */
+	public synchronized void shutdown() {
+		if (watchdog != null)
+			watchdog.cancel(false);
+		watchdog = null;
+	}
+
+	/**
+	 * Starts sampling the stacks once this {@code TickProfiler} is set to its first
+	 * {@code TickWheel}. This method is called by {@link TickWheel#setProfiler(TickProfiler)}.
+	 */
+	synchronized void attach() {
+		if (attached++ == 0 && watchdog == null)
+			watchdog = Core.scheduleFixedTask(new Watchdog(), 1, 1, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stops sampling the stacks once this {@code TickProfiler} is no longer set to any
+	 * {@code TickWheel}. This method is called by {@link TickWheel#setProfiler(TickProfiler)}.
+	 */
+	synchronized void detach() {
+		if (attached > 0 && --attached == 0)
+			shutdown();
+	}
+
+	private Execution createExecution() {
+		Execution execution = new Execution(Thread.currentThread());
+		running.add(execution);
+		return execution;
+	}
+
+	/**
+	 * The statistics of a single {@code Tick} class that are updated by every execution.
+	 */
+	private static final class Counter {
+		private final Class<? extends Tick> tickClass;
+		private final LongAdder invocations = new LongAdder();
+		private final LongAdder totalNanos = new LongAdder();
+		private final LongAdder overruns = new LongAdder();
+		private final AtomicLong maxNanos = new AtomicLong();
+		private final AtomicLongArray histogram = new AtomicLongArray(TickStatistics.HISTOGRAM_SIZE);
+
+		private Counter(Class<? extends Tick> tickClass) {
+			this.tickClass = tickClass;
+		}
+
+		private TickStatistics snapshot() {
+			long[] buckets = new long[histogram.length()];
+			for (int i = 0; i < buckets.length; i++)
+				buckets[i] = histogram.get(i);
+			return new TickStatistics(tickClass, invocations.sum(), totalNanos.sum(), maxNanos.get(), overruns.sum(), buckets);
+		}
+
+		private void reset() {
+			invocations.reset();
+			totalNanos.reset();
+			overruns.reset();
+			maxNanos.set(0);
+			for (int i = 0; i < histogram.length(); i++)
+				histogram.set(i, 0);
+		}
+	}
+
+	/**
+	 * The execution currently running on a single thread, reused for every {@code Tick} executed by
+	 * that thread.
+	 */
+	private static final class Execution {
+		private final Thread thread;
+		private volatile Tick tick; // The tick being executed, or null if none
+		private volatile long start;
+		private volatile long sequence; // Incremented for every execution started
+		private volatile long sampleSequence = -1; // The sequence of the execution sampled
+		private volatile StackTraceElement[] sample;
+
+		private Execution(Thread thread) {
+			this.thread = thread;
+		}
+	}
+
+	/**
+	 * Samples the stack of every thread executing a {@code Tick} that is over budget.
+	 */
+	private final class Watchdog extends CoreThread {
+
+		private Watchdog() {
+			super("Tick Profiler Watchdog", Thread.MIN_PRIORITY, true);
+		}
+
+		@Override
+		public void run() {
+			long now = System.nanoTime();
+			for (Execution execution : running) {
+				if (!execution.thread.isAlive()) {
+					running.remove(execution);
+					continue;
+				}
+				long sequence = execution.sequence;
+				if (execution.tick == null || execution.sampleSequence == sequence || now - execution.start <= budget)
+					continue;
+				StackTraceElement[] sample = execution.thread.getStackTrace();
+				if (execution.sequence != sequence || execution.tick == null)
+					continue; // The execution finished while sampling
+				execution.sample = sample;
+				execution.sampleSequence = sequence;
+			}
+		}
+	}
+}
@@ -0,0 +1,167 @@
+package infrastructure;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The {@code TickShards} class executes the {@code Tick} objects that are due within a
+ * {@code TickWheel}, grouped by their shard.
+ *
+ * <p>
+ * Any {@code Tick} within the {@link Tick#GLOBAL_SHARD} is executed first, one after another, on
+ * the thread advancing the wheel. Every other {@code Tick} is placed into a bucket based on its
+ * shard, and the buckets are then executed in parallel on a {@code ForkJoinPool}. Each bucket is
+ * executed by a single thread in the order its ticks became due, so any {@code Tick} objects
+ * sharing a shard are never executed at the same time and keep their order.
+ *
+ * @author Albert Beaupre
+ *
+ * @see infrastructure.Tick#setShard(int)
+ */
+final class TickShards {
+
+	private final ForkJoinPool pool; // The pool executing the buckets, or null if not parallel
+	private final int bucketMask;
+	private final int[] bucketStart; // The start of each bucket within the sorted array
+	private int[] buckets = new int[64]; // The bucket of each due Tick
+	private Tick[] sorted = new Tick[64]; // The due Ticks sorted by their bucket
+	private volatile TickProfiler profiler; // The profiler recording every execution, or null if none
+
+	/**
+	 * Constructs a new {@code TickShards} executing ticks in parallel over the specified
+	 * {@code parallelism} level. A {@code parallelism} of 1 executes every {@code Tick} on the
+	 * thread advancing the wheel.
+	 *
+	 * @param parallelism
+	 *            the amount of threads executing ticks in parallel
+	 */
+	TickShards(int parallelism) {
+		if (parallelism < 1)
+			throw new IllegalArgumentException("The parallelism of a TickWheel must be at least 1");
+		this.pool = parallelism == 1 ? null : new ForkJoinPool(parallelism);
+		int bucketCount = parallelism == 1 ? 1 : Integer.highestOneBit(parallelism * 4 - 1) << 1;
+		this.bucketMask = bucketCount - 1;
+		this.bucketStart = new int[bucketCount + 1];
+	}
+
+	/**
+	 * Executes the first {@code count} ticks within the specified {@code due} array, which have become
+	 * due at the specified {@code time}.
+	 *
+	 * @param due
+	 *            the ticks that are due
+	 * @param count
+	 *            the amount of ticks that are due
+	 * @param time
+	 *            the time in milliseconds the ticks have become due
+	 */
+	void execute(Tick[] due, int count, long time) {
+		if (pool == null) {
+			for (int i = 0; i < count; i++)
+				execute(due[i], time);
+			return;
+		}
+
+		if (buckets.length < count) {
+			buckets = new int[due.length];
+			sorted = new Tick[due.length];
+		}
+
+		Arrays.fill(bucketStart, 0);
+		int sharded = 0;
+		for (int i = 0; i < count; i++) {
+			Tick tick = due[i];
+			int shard = tick.getShard();
+			if (shard == Tick.GLOBAL_SHARD) {
+				execute(tick, time);
+				buckets[i] = -1;
+				continue;
+			}
+			int bucket = (shard * 0x9E3779B9 >>> 16) & bucketMask;
+			buckets[i] = bucket;
+			bucketStart[bucket + 1]++;
+			sharded++;
+		}
+		if (sharded == 0)
+			return;
+
+		for (int i = 1; i < bucketStart.length; i++)
+			bucketStart[i] += bucketStart[i - 1];
+		for (int i = 0; i < count; i++) {
+			int bucket = buckets[i];
+			if (bucket == -1)
+				continue;
+			sorted[bucketStart[bucket]++] = due[i];
+		}
+		for (int i = bucketStart.length - 1; i > 0; i--)
+			bucketStart[i] = bucketStart[i - 1];
+		bucketStart[0] = 0;
+
+		pool.invoke(new BucketAction(time, 0, bucketMask + 1));
+		Arrays.fill(sorted, 0, sharded, null);
+	}
+
+	/**
+	 * Sets the {@code TickProfiler} recording every {@code Tick} executed by this {@code TickShards}.
+	 *
+	 * @param profiler
+	 *            the profiler to set, or null to stop profiling
+	 */
+	void setProfiler(TickProfiler profiler) {
+		this.profiler = profiler;
+	}
+
+	/**
+	 * Returns the {@code TickProfiler} recording every {@code Tick} executed by this
+	 * {@code TickShards}.
+	 *
+	 * @return the profiler, or null if not profiling
+	 */
+	TickProfiler getProfiler() {
+		return profiler;
+	}
+
+	private void execute(Tick tick, long time) {
+		tick.startTicking(time);
+		TickProfiler profiler = this.profiler;
+		long start = profiler == null ? 0 : profiler.begin(tick);
+		try {
+			tick.tick();
+		} catch (Exception e) {
+			e.printStackTrace();
+		} finally {
+			if (profiler != null)
+				profiler.end(tick, start);
+		}
+	}
+
+	/**
+	 * Executes a range of buckets, splitting the range in half until a single bucket is left.
+	 */
+	@SuppressWarnings("serial")
+	private final class BucketAction extends RecursiveAction {
+
+		private final long time;
+		private final int from, to;
+
+		private BucketAction(long time, int from, int to) {
+			this.time = time;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (bucketStart[from] == bucketStart[to])
+				return; // Every bucket in this range is empty
+			if (to - from == 1) {
+				for (int i = bucketStart[from]; i < bucketStart[to]; i++)
+					execute(sorted[i], time);
+				return;
+			}
+			int middle = (from + to) >>> 1;
+			invokeAll(new BucketAction(time, from, middle), new BucketAction(time, middle, to));
+		}
+	}
+}
@@ -0,0 +1,146 @@
+package infrastructure;
+
+/**
+ * The {@code TickStatistics} class is a snapshot of the executions recorded by a
+ * {@code TickProfiler} for a single {@code Tick} class.
+ *
+ * <p>
+ * The latency histogram of a {@code TickStatistics} has {@link #HISTOGRAM_SIZE} buckets. The
+ * bucket at index {@code i} counts every execution that took at least {@code 2^(i - 1)} and less
+ * than {@code 2^i} nanoseconds.
+ *
+ * @author Albert Beaupre
+ *
+ * @see infrastructure.TickProfiler
+ */
+public final class TickStatistics {
+
+	/**
+	 * The amount of buckets within the latency histogram.
+	 */
+	public static final int HISTOGRAM_SIZE = 64;
+
+	private final Class<? extends Tick> tickClass;
+	private final long invocations;
+	private final long totalNanos;
+	private final long maxNanos;
+	private final long overruns;
+	private final long[] histogram;
+
+	/**
+	 * Constructs a new {@code TickStatistics} from the specified values.
+	 *
+	 * @param tickClass
+	 *            the class of the ticks recorded
+	 * @param invocations
+	 *            the amount of times the ticks were executed
+	 * @param totalNanos
+	 *            the total time the executions took in nanoseconds
+	 * @param maxNanos
+	 *            the longest time a single execution took in nanoseconds
+	 * @param overruns
+	 *            the amount of executions that exceeded the budget of the profiler
+	 * @param histogram
+	 *            the latency histogram of the executions
+	 */
+	public TickStatistics(Class<? extends Tick> tickClass, long invocations, long totalNanos, long maxNanos, long overruns, long[] histogram) {
+		this.tickClass = tickClass;
+		this.invocations = invocations;
+		this.totalNanos = totalNanos;
+		this.maxNanos = maxNanos;
+		this.overruns = overruns;
+		this.histogram = histogram;
+	}
+
+	/**
+	 * Returns the class of the {@code Tick} objects these statistics were recorded for.
+	 *
+	 * @return the tick class
+	 */
+	public Class<? extends Tick> getTickClass() {
+		return tickClass;
+	}
+
+	/**
+	 * Returns the amount of times a {@code Tick} of this class was executed.
+	 *
+	 * @return the amount of invocations
+	 */
+	public long getInvocations() {
+		return invocations;
+	}
+
+	/**
+	 * Returns the total time in nanoseconds every execution took.
+	 *
+	 * @return the total time
+	 */
+	public long getTotalNanos() {
+		return totalNanos;
+	}
+
+	/**
+	 * Returns the longest time in nanoseconds a single execution took.
+	 *
+	 * @return the longest time
+	 */
+	public long getMaxNanos() {
+		return maxNanos;
+	}
+
+	/**
+	 * Returns the average time in nanoseconds an execution took.
+	 *
+	 * @return the average time
+	 */
+	public long getAverageNanos() {
+		return invocations == 0 ? 0 : totalNanos / invocations;
+	}
+
+	/**
+	 * Returns the amount of executions that exceeded the budget of the {@code TickProfiler}.
+	 *
+	 * @return the amount of overruns
+	 */
+	public long getOverruns() {
+		return overruns;
+	}
+
+	/**
+	 * Returns a copy of the latency histogram of the executions.
+	 *
+	 * @return the latency histogram
+	 */
+	public long[] getHistogram() {
+		return histogram.clone();
+	}
+
+	/**
+	 * Returns the upper bound in nanoseconds of the histogram bucket holding the specified
+	 * {@code percentile} of the executions. For example, a {@code percentile} of 99 returns a time
+	 * that at least 99% of the executions took less than.
+	 *
+	 * @param percentile
+	 *            the percentile, from 0 to 100
+	 * @return the upper bound of the percentile
+	 */
+	public long getPercentileNanos(double percentile) {
+		long target = (long) Math.ceil(invocations * (percentile / 100D));
+		long counted = 0;
+		for (int i = 0; i < histogram.length; i++) {
+			counted += histogram[i];
+			if (counted >= target && counted > 0)
+				return i >= 63 ? Long.MAX_VALUE : 1L << i;
+		}
+		return 0;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Object#toString()
+	 */
+	public String toString() {
+		return String.format("%s[invocations=%s, total=%sns, average=%sns, max=%sns, p99=%sns, overruns=%s]", tickClass.getName(), invocations, totalNanos, getAverageNanos(), maxNanos, getPercentileNanos(99), overruns);
+	}
+}
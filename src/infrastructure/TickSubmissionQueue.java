@@ -0,0 +1,97 @@
+package infrastructure;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The {@code TickSubmissionQueue} class is a lock-free queue that any thread can submit a
+ * {@code Tick} to, so the state of that {@code Tick} is handed over to the single thread that owns
+ * the {@code TickWheel} it is scheduled within.
+ *
+ * <p>
+ * A {@code Tick} is linked directly into this queue, so submitting it does not allocate anything.
+ * A {@code Tick} that has already been submitted and not yet drained is not submitted again; the
+ * draining thread reads the latest state of the {@code Tick} when it is drained, so every change
+ * made before that point is applied at once.
+ *
+ * @author Albert Beaupre
+ *
+ * @see infrastructure.Tick
+ * @see infrastructure.TickWheel
+ */
+public final class TickSubmissionQueue {
+
+	private static final AtomicIntegerFieldUpdater<Tick> SUBMITTED = AtomicIntegerFieldUpdater.newUpdater(Tick.class, "submitted");
+
+	private final AtomicReference<Tick> head = new AtomicReference<>(); // The last Tick submitted
+
+	/**
+	 * Submits the specified {@code Tick} to this {@code TickSubmissionQueue} so its state can be
+	 * applied by the thread draining this queue. This method can be called by any thread.
+	 *
+	 * @param tick
+	 *            the tick to submit
+	 */
+	public void offer(Tick tick) {
+		if (!SUBMITTED.compareAndSet(tick, 0, 1))
+			return; // Already waiting to be drained
+		Tick last;
+		do {
+			last = head.get();
+			tick.nextSubmitted = last;
+		} while (!head.compareAndSet(last, tick));
+	}
+
+	/**
+	 * Drains every {@code Tick} submitted to this {@code TickSubmissionQueue}, in the order they were
+	 * submitted, into the specified {@code TickWheel}. A {@code Tick} that has been cancelled is
+	 * unscheduled from the wheel, and a {@code Tick} that has been queued starts ticking from the
+	 * specified {@code time} and is scheduled within it.
+	 *
+	 * <p>
+	 * This method must only be called by the thread that owns the specified {@code TickWheel}, so the
+	 * time a {@code Tick} has started ticking is only ever written by that thread.
+	 *
+	 * @param wheel
+	 *            the wheel to drain the submitted ticks into
+	 * @param time
+	 *            the current time in milliseconds
+	 */
+	public void drainTo(TickWheel wheel, long time) {
+		Tick tick = head.getAndSet(null);
+		if (tick == null)
+			return;
+
+		Tick reversed = null; // The submissions are linked from last to first
+		while (tick != null) {
+			Tick next = tick.nextSubmitted;
+			tick.nextSubmitted = reversed;
+			reversed = tick;
+			tick = next;
+		}
+
+		tick = reversed;
+		while (tick != null) {
+			Tick next = tick.nextSubmitted;
+			tick.nextSubmitted = null;
+			SUBMITTED.set(tick, 0); // Any change made from here on is submitted again
+			if (tick.isCancelled()) {
+				wheel.unschedule(tick);
+			} else if (tick.isQueued()) {
+				tick.startTicking(time);
+				wheel.schedule(tick);
+			}
+			tick = next;
+		}
+	}
+
+	/**
+	 * Returns true if there is not a {@code Tick} waiting to be drained from this
+	 * {@code TickSubmissionQueue}.
+	 *
+	 * @return true if empty; return false otherwise
+	 */
+	public boolean isEmpty() {
+		return head.get() == null;
+	}
+}
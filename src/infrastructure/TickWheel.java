@@ -0,0 +1,266 @@
+package infrastructure;
+
+import java.util.Arrays;
+
+/**
+ * The {@code TickWheel} class is a hierarchical timing wheel that holds every {@code Tick} queued to
+ * a {@code TickThread} until it is due for execution.
+ *
+ * <p>
+ * The wheel is made of {@link #LEVELS} levels of {@link #WHEEL_SIZE} slots each. The lowest level
+ * has a resolution of one millisecond, and every level above it covers {@link #WHEEL_SIZE} times
+ * the span of the level below it. A {@code Tick} is linked into the slot of the lowest level that
+ * can hold its deadline, and is cascaded down a level whenever the wheel below it wraps around.
+ * This makes scheduling and unscheduling a {@code Tick} constant time, and each call to
+ * {@link #advance(long)} only touches the slots that have expired and the {@code Tick} objects
+ * within them.
+ *
+ * <p>
+ * Every {@code Tick} that is due is executed by the {@code TickShards} of this {@code TickWheel},
+ * which may execute them in parallel based on their shard. Each {@code Tick} is executed at most
+ * once per call to {@link #advance(long)}. A {@code Tick} is appended to the tail of its slot, so
+ * ticks with an equal deadline are executed in the order they were scheduled.
+ *
+ * <p>
+ * A {@code TickWheel} is <b>not</b> thread safe and must only be used by the thread advancing it.
+ *
+ * @author Albert Beaupre
+ *
+ * @see infrastructure.Tick
+ * @see infrastructure.threads.TickThread
+ */
+public final class TickWheel {
+
+	/**
+	 * The number of bits used to index the slots of a single level.
+	 */
+	public static final int WHEEL_BITS = 8;
+
+	/**
+	 * The number of slots within a single level.
+	 */
+	public static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+
+	/**
+	 * The number of levels within this {@code TickWheel}.
+	 */
+	public static final int LEVELS = 4;
+
+	/**
+	 * The longest delay, in milliseconds, that a {@code Tick} can be held before it is executed. Any
+	 * longer delay is shortened to this value. This is roughly 49 days.
+	 */
+	public static final long MAX_DELAY = (1L << (WHEEL_BITS * LEVELS)) - 1;
+
+	private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+	private final Tick[][] wheels = new Tick[LEVELS][WHEEL_SIZE]; // The head of every slot in every level
+	private final Tick[][] tails = new Tick[LEVELS][WHEEL_SIZE]; // The tail of every slot in every level
+	private final TickShards shards; // The shards executing every Tick that is due
+	private Tick[] due = new Tick[64]; // The Ticks that have become due during an advance
+	private int dueCount;
+	private long current; // The next millisecond that has not been expired yet
+	private int size; // The amount of Ticks linked within this wheel
+
+	/**
+	 * Constructs a new {@code TickWheel} with no {@code Tick} scheduled, starting at the specified
+	 * {@code time}, that executes every {@code Tick} on the thread advancing it.
+	 *
+	 * @param time
+	 *            the time in milliseconds that this {@code TickWheel} starts at
+	 */
+	public TickWheel(long time) {
+		this(time, 1);
+	}
+
+	/**
+	 * Constructs a new {@code TickWheel} with no {@code Tick} scheduled, starting at the specified
+	 * {@code time}, that executes each shard of {@code Tick} objects in parallel over the specified
+	 * {@code parallelism} level.
+	 *
+	 * @param time
+	 *            the time in milliseconds that this {@code TickWheel} starts at
+	 * @param parallelism
+	 *            the amount of threads executing ticks in parallel
+	 *
+	 * @see infrastructure.Tick#setShard(int)
+	 */
+	public TickWheel(long time, int parallelism) {
+		this.current = time;
+		this.shards = new TickShards(parallelism);
+	}
+
+	/**
+	 * Schedules the specified {@code Tick} to be executed once its period has passed since it last
+	 * started ticking. If the {@code Tick} is already scheduled within this {@code TickWheel}, then it
+	 * is moved to its new deadline.
+	 *
+	 * @param tick
+	 *            the tick to schedule
+	 */
+	public void schedule(Tick tick) {
+		schedule(tick, tick.getStartedTicking() + tick.getPeriod());
+	}
+
+	/**
+	 * Unschedules the specified {@code Tick} from this {@code TickWheel} if it is scheduled within it.
+	 *
+	 * @param tick
+	 *            the tick to unschedule
+	 */
+	public void unschedule(Tick tick) {
+		if (tick.wheelLevel == -1)
+			return;
+		if (tick.previous == null) {
+			wheels[tick.wheelLevel][tick.wheelSlot] = tick.next;
+		} else {
+			tick.previous.next = tick.next;
+		}
+		if (tick.next == null) {
+			tails[tick.wheelLevel][tick.wheelSlot] = tick.previous;
+		} else {
+			tick.next.previous = tick.previous;
+		}
+		tick.next = tick.previous = null;
+		tick.wheelLevel = tick.wheelSlot = -1;
+		size--;
+	}
+
+	/**
+	 * Advances this {@code TickWheel} up to and including the specified {@code time}, executing every
+	 * {@code Tick} that has become due. A {@code Tick} that has been cancelled is dropped instead of
+	 * being executed, and a {@code Tick} that has not been cancelled after its execution is scheduled
+	 * again to execute once its period has passed.
+	 *
+	 * @param time
+	 *            the current time in milliseconds
+	 */
+	public void advance(long time) {
+		while (current <= time) {
+			int index = (int) (current & WHEEL_MASK);
+			if (index == 0)
+				cascade();
+
+			Tick tick = wheels[0][index];
+			wheels[0][index] = tails[0][index] = null;
+			current++;
+
+			while (tick != null) {
+				Tick next = tick.next;
+				tick.next = tick.previous = null;
+				tick.wheelLevel = tick.wheelSlot = -1;
+				size--;
+				if (!tick.isCancelled()) {
+					if (dueCount == due.length)
+						due = Arrays.copyOf(due, dueCount << 1);
+					due[dueCount++] = tick;
+				}
+				tick = next;
+			}
+		}
+		if (dueCount == 0)
+			return;
+
+		shards.execute(due, dueCount, time);
+
+		for (int i = 0; i < dueCount; i++) {
+			Tick tick = due[i];
+			due[i] = null;
+			if (!tick.isCancelled() && tick.wheelLevel == -1)
+				schedule(tick, time + tick.getPeriod());
+		}
+		dueCount = 0;
+	}
+
+	/**
+	 * Sets the {@code TickProfiler} recording every {@code Tick} executed by this {@code TickWheel}.
+	 * The stack sampling of the profiler is started once it is set, and the stack sampling of the
+	 * previous profiler is stopped once it is no longer set to any {@code TickWheel}.
+	 *
+	 * @param profiler
+	 *            the profiler to set, or null to stop profiling
+	 */
+	public void setProfiler(TickProfiler profiler) {
+		TickProfiler previous = shards.getProfiler();
+		if (previous == profiler)
+			return;
+		shards.setProfiler(profiler);
+		if (previous != null)
+			previous.detach();
+		if (profiler != null)
+			profiler.attach();
+	}
+
+	/**
+	 * Returns the {@code TickProfiler} recording every {@code Tick} executed by this
+	 * {@code TickWheel}.
+	 *
+	 * @return the profiler, or null if not profiling
+	 */
+	public TickProfiler getProfiler() {
+		return shards.getProfiler();
+	}
+
+	/**
+	 * Returns the amount of {@code Tick} objects scheduled within this {@code TickWheel}.
+	 *
+	 * @return the amount of ticks scheduled
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Moves every {@code Tick} within the current slot of each upper level down to the levels below
+	 * it. A level is only cascaded if every level below it has wrapped around.
+	 */
+	private void cascade() {
+		for (int level = 1; level < LEVELS; level++) {
+			int index = (int) ((current >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+
+			Tick tick = wheels[level][index];
+			wheels[level][index] = tails[level][index] = null;
+			while (tick != null) {
+				Tick next = tick.next;
+				tick.next = tick.previous = null;
+				tick.wheelLevel = tick.wheelSlot = -1;
+				size--;
+				schedule(tick, tick.deadline);
+				tick = next;
+			}
+
+			if (index != 0)
+				break;
+		}
+	}
+
+	private void schedule(Tick tick, long deadline) {
+		unschedule(tick);
+
+		if (deadline < current)
+			deadline = current;
+		long delay = deadline - current;
+		if (delay > MAX_DELAY) {
+			deadline = current + MAX_DELAY;
+			delay = MAX_DELAY;
+		}
+
+		int level = 0;
+		while (delay >= (1L << (WHEEL_BITS * (level + 1))))
+			level++;
+		int slot = (int) ((deadline >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+
+		Tick tail = tails[level][slot];
+		tick.deadline = deadline;
+		tick.wheelLevel = level;
+		tick.wheelSlot = slot;
+		tick.previous = tail;
+		if (tail == null) {
+			wheels[level][slot] = tick;
+		} else {
+			tail.next = tick;
+		}
+		tails[level][slot] = tick;
+		size++;
+	}
+}
@@ -0,0 +1,37 @@
+package infrastructure.threads;
+
+/**
+ * Represents a phase of a game cycle executed by a {@code GameCycleThread}. Each phase is executed
+ * in the order of its declaration, once every cycle.
+ * 
+ * @author Albert Beaupre
+ * 
+ * @see infrastructure.threads.GameCycleThread
+ */
+public enum CyclePhase {
+
+	/**
+	 * The phase of a cycle where any packet received by a {@code Connection} since the last cycle is
+	 * processed.
+	 */
+	INPUT,
+
+	/**
+	 * The phase of a cycle where every {@code Tick} that is due and the game logic meant to happen
+	 * once per cycle, such as the {@code ActionProcessor} cycling every {@code ActionQueue}, is
+	 * executed.
+	 */
+	LOGIC,
+
+	/**
+	 * The phase of a cycle where any {@code Model} and its masks are updated.
+	 */
+	UPDATE,
+
+	/**
+	 * The phase of a cycle where every {@code Connection} is flushed of anything written to it during
+	 * the cycle.
+	 */
+	FLUSH;
+
+}
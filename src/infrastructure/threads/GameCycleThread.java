@@ -0,0 +1,266 @@
+package infrastructure.threads;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Logger;
+
+import infrastructure.CoreThread;
+import network.Connection;
+
+/**
+ * The {@code GameCycleThread} class executes the game in fixed cycles, which are
+ * {@link #CYCLE_PERIOD} milliseconds long by default. Every cycle executes each
+ * {@code CyclePhase} in order:
+ *
+ * <ul>
+ * <li>{@link CyclePhase#INPUT} - processes the packets received by every registered
+ * {@code Connection}</li>
+ * <li>{@link CyclePhase#LOGIC} - executes every {@code Tick} of the {@code TickThread} of this
+ * {@code GameCycleThread} that has become due, if one is set, and any task registered to run the
+ * game logic, such as the {@code ActionProcessor}</li>
+ * <li>{@link CyclePhase#UPDATE} - executes any task registered to update models and masks</li>
+ * <li>{@link CyclePhase#FLUSH} - flushes every registered {@code Connection} once</li>
+ * </ul>
+ *
+ * <p>
+ * Any other task can be registered to a phase by the {@link #register(CyclePhase, Runnable)}
+ * method, and is executed after the work built into that phase. Tasks registered to the
+ * {@link CyclePhase#FLUSH} phase are executed before the connections are flushed instead.
+ *
+ * <p>
+ * Every {@code Tick} is executed during the {@link CyclePhase#LOGIC} phase of the first cycle it is
+ * due by, so no {@code Tick} runs at the same time as the other phases. Only a {@code Tick} that is
+ * {@link infrastructure.Tick#isRealTime() real-time} is left to the millisecond schedule of the
+ * {@code TickThread}. Each {@code Tick} sees the time the cycle was due to start at, so a
+ * {@code Tick} with a period of a whole amount of cycles is executed every that many cycles.
+ *
+ * <p>
+ * The start of every cycle is calculated from the start of the first cycle, so the time taken by
+ * each cycle does not drift the cycles after it. If a cycle takes longer than a whole period, then
+ * the missed cycles are skipped instead of executed back to back.
+ *
+ * @author Albert Beaupre
+ *
+ * @see infrastructure.threads.CyclePhase
+ */
+public final class GameCycleThread extends CoreThread {
+
+	/**
+	 * The default period of a game cycle in milliseconds.
+	 */
+	public static final long CYCLE_PERIOD = 600;
+
+	private static final CyclePhase[] PHASES = CyclePhase.values();
+
+	private final Logger logger = Logger.getLogger(getClass().getName());
+
+	@SuppressWarnings("unchecked")
+	private final CopyOnWriteArrayList<Runnable>[] tasks = new CopyOnWriteArrayList[PHASES.length];
+	private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+	private final long[] phaseNanos = new long[PHASES.length]; // The time each phase took last cycle
+	private final long period; // The period of each cycle in nanoseconds
+
+	private volatile TickThread ticker;
+	private volatile boolean running;
+	private volatile long cycleNanos; // The time the last cycle took
+	private long cycles;
+	private long cycleMillis; // The time in milliseconds the current cycle was due to start at
+
+	/**
+	 * Constructs a new {@code GameCycleThread} executing a cycle every {@link #CYCLE_PERIOD}
+	 * milliseconds.
+	 */
+	public GameCycleThread() {
+		this(CYCLE_PERIOD, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Constructs a new {@code GameCycleThread} executing a cycle every {@code period} based on the
+	 * specified {@code TimeUnit}.
+	 *
+	 * @param period
+	 *            the period of each cycle
+	 * @param unit
+	 *            the {@code TimeUnit} at which the period is calculated
+	 */
+	public GameCycleThread(long period, TimeUnit unit) {
+		super("Game Cycle Thread", Thread.MAX_PRIORITY, false);
+		if (period <= 0)
+			throw new IllegalArgumentException("The period of a game cycle must be greater than 0");
+		this.period = unit.toNanos(period);
+		for (int i = 0; i < tasks.length; i++)
+			tasks[i] = new CopyOnWriteArrayList<>();
+	}
+
+	/**
+	 * Registers the specified {@code task} to be executed every cycle during the specified
+	 * {@code phase}.
+	 *
+	 * @param phase
+	 *            the phase to execute the task during
+	 * @param task
+	 *            the task to execute
+	 */
+	public void register(CyclePhase phase, Runnable task) {
+		if (task == null)
+			throw new NullPointerException("You cannot register a task equal to null");
+		tasks[phase.ordinal()].add(task);
+	}
+
+	/**
+	 * Unregisters the specified {@code task} from the specified {@code phase}, if it is registered.
+	 *
+	 * @param phase
+	 *            the phase the task was registered to
+	 * @param task
+	 *            the task to unregister
+	 */
+	public void unregister(CyclePhase phase, Runnable task) {
+		tasks[phase.ordinal()].remove(task);
+	}
+
+	/**
+	 * Registers the specified {@code Connection} to this {@code GameCycleThread}. The packets received
+	 * by the {@code Connection} are then processed during the {@link CyclePhase#INPUT} phase, and
+	 * anything written to it is flushed during the {@link CyclePhase#FLUSH} phase. The
+	 * {@code Connection} is unregistered once its channel is no longer active.
+	 *
+	 * @param connection
+	 *            the connection to register
+	 */
+	public void register(Connection connection) {
+		connection.setBatched(true);
+		connections.add(connection);
+	}
+
+	/**
+	 * Sets the {@code TickThread} whose ticks are executed during the {@link CyclePhase#LOGIC} phase
+	 * of this {@code GameCycleThread}. Only its real-time ticks keep running on its own schedule once
+	 * the first cycle has executed it.
+	 *
+	 * @param ticker
+	 *            the ticker to execute
+	 */
+	public void setTicker(TickThread ticker) {
+		this.ticker = ticker;
+	}
+
+	/**
+	 * Stops this {@code GameCycleThread} once its current cycle has finished.
+	 */
+	public void shutdown() {
+		this.running = false;
+		LockSupport.unpark(this);
+	}
+
+	/**
+	 * Returns the time in nanoseconds the specified {@code phase} took during the last cycle.
+	 *
+	 * @param phase
+	 *            the phase to get the time of
+	 * @return the time the phase took
+	 */
+	public long getPhaseNanos(CyclePhase phase) {
+		return phaseNanos[phase.ordinal()];
+	}
+
+	/**
+	 * Returns the time in nanoseconds the last cycle took.
+	 *
+	 * @return the time the last cycle took
+	 */
+	public long getCycleNanos() {
+		return cycleNanos;
+	}
+
+	/**
+	 * Returns the amount of cycles that have been executed by this {@code GameCycleThread}.
+	 *
+	 * @return the amount of cycles executed
+	 */
+	public long getCycles() {
+		return cycles;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see infrastructure.CoreThread#run()
+	 */
+	public void run() {
+		running = true;
+		long origin = System.nanoTime();
+		long originMillis = System.currentTimeMillis();
+		long next = origin;
+		while (running) {
+			long start = System.nanoTime();
+			cycleMillis = originMillis + TimeUnit.NANOSECONDS.toMillis(next - origin);
+			cycle();
+			cycleNanos = System.nanoTime() - start;
+			cycles++;
+
+			next += period;
+			long now = System.nanoTime();
+			if (now - next > period) {
+				logger.warning(String.format("Game cycle took %sms, skipping %s cycles", TimeUnit.NANOSECONDS.toMillis(cycleNanos), (now - next) / period));
+				next = now;
+			}
+			while (running && (now = System.nanoTime()) < next)
+				LockSupport.parkNanos(this, next - now);
+		}
+	}
+
+	private void cycle() {
+		for (int i = 0; i < PHASES.length; i++) {
+			long start = System.nanoTime();
+			CyclePhase phase = PHASES[i];
+			if (phase != CyclePhase.FLUSH)
+				execute(phase);
+			for (Runnable task : tasks[i]) {
+				try {
+					task.run();
+				} catch (Exception e) {
+					e.printStackTrace();
+				}
+			}
+			if (phase == CyclePhase.FLUSH)
+				execute(phase);
+			phaseNanos[i] = System.nanoTime() - start;
+		}
+	}
+
+	/**
+	 * Executes the work built into the specified {@code phase}.
+	 */
+	private void execute(CyclePhase phase) {
+		try {
+			switch (phase) {
+				case INPUT:
+					for (Connection connection : connections) {
+						if (!connection.getChannel().isActive()) {
+							connections.remove(connection);
+							continue;
+						}
+						connection.processIncoming();
+					}
+					break;
+				case LOGIC:
+					TickThread ticker = this.ticker;
+					if (ticker != null)
+						ticker.cycle(cycleMillis);
+					break;
+				case FLUSH:
+					for (Connection connection : connections)
+						connection.flush();
+					break;
+				default:
+					break;
+			}
+		} catch (Exception e) {
+			e.printStackTrace();
+		}
+	}
+}
@@ -13,15 +13,39 @@ public final class ModelUpdaterThread extends CoreThread {
 	private ArrayList<Model> updating = new ArrayList<>();
 	private ArrayDeque<Model> queued = new ArrayDeque<>();
 
+	private final boolean cycled; // The flag that checks if this updater is run by a GameCycleThread
 	private boolean running;
 
 	public ModelUpdaterThread() {
+		this(false);
+	}
+
+	/**
+	 * Constructs a new {@code ModelUpdaterThread}. If the specified {@code cycled} flag is true, then
+	 * this updater does not submit itself when a {@code Model} is set for updating, and must be
+	 * registered to the {@link CyclePhase#UPDATE} phase of a {@code GameCycleThread} instead.
+	 * 
+	 * @param cycled
+	 *            the flag for this updater to be run by a game cycle
+	 */
+	public ModelUpdaterThread(boolean cycled) {
 		super("Model Updater", Thread.MAX_PRIORITY, false);
+		this.cycled = cycled;
+	}
+
+	/**
+	 * Returns true if this updater is run by the {@link CyclePhase#UPDATE} phase of a
+	 * {@code GameCycleThread} instead of submitting itself.
+	 * 
+	 * @return true if cycled; return false otherwise
+	 */
+	public boolean isCycled() {
+		return cycled;
 	}
 
 	public synchronized void setForUpdating(Model model) {
 		this.queued.add(model);
-		if (!running) {
+		if (!running && !cycled) {
 			Core.submitThread(this);
 		}
 	}
@@ -30,9 +54,11 @@ public final class ModelUpdaterThread extends CoreThread {
 	public void run() {
 		this.running = true;
 		try {
-			if (this.queued.size() > 0) {
-				this.updating.addAll(this.queued);
-				this.queued.clear();
+			synchronized (this) {
+				if (this.queued.size() > 0) {
+					this.updating.addAll(this.queued);
+					this.queued.clear();
+				}
 			}
 
 			if (this.updating.size() > 0) {
@@ -1,15 +1,32 @@
 package infrastructure.threads;
 
-import java.util.ArrayList;
-
 import infrastructure.CoreThread;
 import infrastructure.Tick;
+import infrastructure.TickProfiler;
+import infrastructure.TickSubmissionQueue;
+import infrastructure.TickWheel;
 
 /**
  * The {@code TickThread} class is used to handle any {@code Tick}. If a {@code Tick} has been
  * queued, it will be executed as soon as {@link Tick#getDuration()} is greater or equal to
- * {@link Tick#getPeriod()} and then it will be stopped and removed from this {@code TickThread}
- * until {@link Tick#queue(long)} has been called again.
+ * {@link Tick#getPeriod()} and will continue to be executed every period until it has been
+ * cancelled.
+ * 
+ * <p>
+ * Every queued {@code Tick} is held within a {@link infrastructure.TickWheel}, so queuing and
+ * cancelling a {@code Tick} takes constant time and each run of this {@code TickThread} only
+ * touches the {@code Tick} objects that are actually due.
+ * 
+ * <p>
+ * A {@code Tick} can be queued or cancelled from any thread. Both are submitted to a lock-free
+ * {@link infrastructure.TickSubmissionQueue} and applied to the wheel by this {@code TickThread}
+ * at the start of its next run.
+ * 
+ * <p>
+ * Until a {@code GameCycleThread} first calls {@link #cycle(long)}, every {@code Tick} is executed
+ * by {@link #run()}. From then on, only a {@code Tick} that is {@link Tick#isRealTime() real-time}
+ * is still executed by {@link #run()}; every other {@code Tick} is executed by the
+ * {@link CyclePhase#LOGIC} phase, so it never runs at the same time as the rest of the game logic.
  * 
  * <p>
  * If you wish to use a TickThread separated from the {@link infrastructure.GlobalVariables} class,
@@ -19,70 +36,146 @@ import infrastructure.Tick;
  * {
  * 	TickThread ticker = new TickThread();
  * 
- * 	ExecutorService service = Executors.newCachedThreadPool();
- * 	service.submit(ticker);
+ * 	ScheduledExecutorService service = Executors.newSingleThreadScheduledExecutor();
+ * 	service.scheduleAtFixedRate(ticker, 0, 1, TimeUnit.MILLISECONDS);
  * }
  * </pre>
  * 
  * @author Albert Beaupre
  * 
  * @see infrastructure.Tick
+ * @see infrastructure.TickWheel
  */
 public final class TickThread extends CoreThread {
 
-	private ArrayList<Tick> waitingList = new ArrayList<>();
-	private ArrayList<Tick> list; // This list is filled by any
-									// incoming ticks to be executed
+	private final TickSubmissionQueue submissions = new TickSubmissionQueue(); // This queue is filled by any
+																				// incoming ticks to be scheduled
+	private final TickSubmissionQueue realTimeSubmissions = new TickSubmissionQueue(); // The same for real-time ticks
+	private final TickWheel wheel; // Guarded by itself, as it is handed over to the game cycle
+	private final TickWheel realTimeWheel;
+	private volatile boolean cycled; // True once a GameCycleThread executes the wheel
 
 	/**
-	 * Constructs a new {@code TickThread} with an empty list of {@code Ticks}.
+	 * Constructs a new {@code TickThread} with no {@code Ticks} queued, that executes every
+	 * {@code Tick} on the thread running it.
 	 */
 	public TickThread() {
+		this(1);
+	}
+
+	/**
+	 * Constructs a new {@code TickThread} with no {@code Ticks} queued, that executes each shard of
+	 * {@code Tick} objects in parallel over the specified {@code parallelism} level. Any {@code Tick}
+	 * within the {@link Tick#GLOBAL_SHARD} is still executed on the thread running this
+	 * {@code TickThread}.
+	 * 
+	 * @param parallelism
+	 *            the amount of threads executing ticks in parallel
+	 * 
+	 * @see infrastructure.Tick#setShard(int)
+	 */
+	public TickThread(int parallelism) {
 		super("Tick Thread", Thread.MAX_PRIORITY, false);
-		this.list = new ArrayList<>();
+		long time = System.currentTimeMillis();
+		this.wheel = new TickWheel(time, parallelism);
+		this.realTimeWheel = new TickWheel(time);
 	}
 
 	/**
 	 * Queues the specified {@code Tick} to be executed when {@link Tick#getDuration()} is greater or
-	 * equal to {@link Tick#getPeriod()} and then it will be removed from this {@code TickThread} until
-	 * this method is called again.
+	 * equal to {@link Tick#getPeriod()}, and every period after that until it has been cancelled.
 	 * 
 	 * @param tickable
 	 *            the {@code Tick} to be queued to execute
 	 */
 	public void queue(Tick tickable) {
-		waitingList.add(tickable);
-		tickable.startTicking();
+		(tickable.isRealTime() ? realTimeSubmissions : submissions).offer(tickable);
+	}
+
+	/**
+	 * Cancels the specified {@code Tick} so it is unscheduled from this {@code TickThread} on its next
+	 * run. This method is called by {@link Tick#cancel()} and can be called by any thread.
+	 * 
+	 * @param tickable
+	 *            the {@code Tick} to be cancelled
+	 */
+	public void cancel(Tick tickable) {
+		(tickable.isRealTime() ? realTimeSubmissions : submissions).offer(tickable);
+	}
+
+	/**
+	 * Sets the {@code TickProfiler} recording every {@code Tick} executed by this {@code TickThread}.
+	 * 
+	 * @param profiler
+	 *            the profiler to set, or null to stop profiling
+	 */
+	public void setProfiler(TickProfiler profiler) {
+		synchronized (wheel) {
+			wheel.setProfiler(profiler);
+		}
+		realTimeWheel.setProfiler(profiler);
+	}
+
+	/**
+	 * Returns the {@code TickProfiler} recording every {@code Tick} executed by this
+	 * {@code TickThread}.
+	 * 
+	 * @return the profiler, or null if not profiling
+	 */
+	public TickProfiler getProfiler() {
+		return wheel.getProfiler();
+	}
+
+	/**
+	 * Returns the amount of {@code Tick} objects scheduled within this {@code TickThread}. This value
+	 * should only be relied on by the threads running this {@code TickThread}.
+	 * 
+	 * @return the amount of ticks scheduled
+	 */
+	public int size() {
+		synchronized (wheel) {
+			return wheel.size() + realTimeWheel.size();
+		}
 	}
 
 	/**
-	 * This method should be run on a constant loop to continuously check, execute, and remove any
-	 * {@code Tick} within this {@code TickThread}.
+	 * This method should be run on a constant loop to continuously schedule, execute, and remove any
+	 * real-time {@code Tick} within this {@code TickThread}, and every other {@code Tick} until a
+	 * {@code GameCycleThread} executes them.
 	 */
 	public void run() {
+		long time = System.currentTimeMillis();
 		try {
-			if (waitingList.size() > 0) {
-				list.addAll(waitingList);
-				waitingList.clear();
-			}
-			if (list.size() > 0) {
-
-				for (int i = 0; i < list.size(); i++) {
-					Tick tickable = list.get(i);
-					if (tickable == null)
-						continue;
-					if (tickable.isCancelled()) {
-						list.remove(i);
-						continue;
-					}
-					if (tickable.getDuration() >= tickable.getPeriod()) {
-						tickable.startTicking();
-						tickable.tick();
-					}
-				}
-			}
+			realTimeSubmissions.drainTo(realTimeWheel, time);
+			realTimeWheel.advance(time);
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
+		if (!cycled)
+			advance(time);
+	}
+
+	/**
+	 * Schedules, executes, and removes every {@code Tick} that is not real-time and has become due by
+	 * the specified {@code time}. This method is called during the {@link CyclePhase#LOGIC} phase of
+	 * a {@code GameCycleThread}, after which {@link #run()} leaves these ticks to the game cycle.
+	 * 
+	 * @param time
+	 *            the time in milliseconds the current game cycle was due to start at
+	 */
+	public void cycle(long time) {
+		cycled = true;
+		advance(time);
+	}
+
+	private void advance(long time) {
+		synchronized (wheel) {
+			try {
+				submissions.drainTo(wheel, time);
+				wheel.advance(time);
+			} catch (Exception e) {
+				e.printStackTrace();
+			}
+		}
 	}
 }
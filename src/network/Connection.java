@@ -1,6 +1,7 @@
 package network;
 
 import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import io.netty.channel.Channel;
 
@@ -13,7 +14,10 @@ public class Connection {
 
 	private final Channel channel;
 	private final int revision;
+	private final ConcurrentLinkedQueue<Runnable> incoming = new ConcurrentLinkedQueue<>();
 	private Display display;
+	private volatile boolean batched; // The flag that checks if this Connection is handled by a game cycle
+	private volatile boolean flushRequired; // The flag that checks if anything has been written since the last flush
 
 	/**
 	 * Constructs a new {@code Connection} based on the specified {@code channel} that is associated
@@ -31,7 +35,8 @@ public class Connection {
 	}
 
 	/**
-	 * Writes the specified {@code object} so it may be sent to the client.
+	 * Writes the specified {@code object} so it may be sent to the client. If this {@code Connection}
+	 * is batched, then the object is not sent until this {@code Connection} has been flushed.
 	 * 
 	 * @throws NullPointerException
 	 *             if the object is null
@@ -42,7 +47,79 @@ public class Connection {
 	public void write(Object object) {
 		if (object == null)
 			throw new NullPointerException("You cannot write a NULL object through a Connection");
-		channel.writeAndFlush(object);
+		if (batched) {
+			channel.write(object);
+			flushRequired = true;
+		} else {
+			channel.writeAndFlush(object);
+		}
+	}
+
+	/**
+	 * Flushes anything written to this {@code Connection} since it was last flushed so it is sent to
+	 * the client.
+	 */
+	public void flush() {
+		if (!flushRequired)
+			return;
+		flushRequired = false;
+		channel.flush();
+	}
+
+	/**
+	 * Receives the specified {@code task} used to process a packet sent by the client. If this
+	 * {@code Connection} is batched, then the task is held until {@link #processIncoming()} is called;
+	 * otherwise it is executed immediately.
+	 * 
+	 * @param task
+	 *            the task processing the received packet
+	 */
+	public void receive(Runnable task) {
+		if (batched) {
+			incoming.add(task);
+		} else {
+			task.run();
+		}
+	}
+
+	/**
+	 * Executes every task received by this {@code Connection} since this method was last called, in
+	 * the order they were received.
+	 */
+	public void processIncoming() {
+		Runnable task;
+		while ((task = incoming.poll()) != null) {
+			try {
+				task.run();
+			} catch (Exception e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	/**
+	 * Sets this {@code Connection} to be batched based on the specified {@code batched} flag. A batched
+	 * {@code Connection} holds any received packet and anything written to it until its game cycle
+	 * processes and flushes it.
+	 * 
+	 * @param batched
+	 *            the flag to set
+	 */
+	public void setBatched(boolean batched) {
+		this.batched = batched;
+		if (!batched) {
+			processIncoming();
+			flush();
+		}
+	}
+
+	/**
+	 * Returns true if this {@code Connection} is batched by a game cycle.
+	 * 
+	 * @return true if batched; return false otherwise
+	 */
+	public boolean isBatched() {
+		return batched;
 	}
 
 	/**
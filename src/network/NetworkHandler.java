@@ -88,7 +88,12 @@ public class NetworkHandler extends ChannelInboundHandlerAdapter {
 			DecodedPacket packet = (DecodedPacket) message;
 			PacketDecoder<ConnectionHolder> processor = handler.getPacketDecoder(packet.getOpcode());
 			if (processor != null) {
-				processor.process(holder, packet);
+				Connection connection = holder.getConnection();
+				if (connection.isBatched()) {
+					connection.receive(() -> processor.process(holder, packet));
+				} else {
+					processor.process(holder, packet);
+				}
 			} else {
 				if (GlobalVariables.isDebugEnabled())
 					LOGGER.warning(String.format("Unprocessed Packet[opcode=%s, length=%s]", packet.getOpcode(), packet.getLength()));
@@ -1,6 +1,6 @@
 package network;
 
-import entity.EntityList;
+import entity.NamedEntityList;
 import entity.actor.persona.Persona;
 import entity.geometry.map.RSMap;
 
@@ -34,8 +34,8 @@ public class World {
 	private final int location;
 	private final int country;
 	private final int flags;
-	private final EntityList<Persona> lobbyPlayers = new EntityList<>(2048);
-	private final EntityList<Persona> players = new EntityList<>(2048);
+	private final NamedEntityList<Persona> lobbyPlayers = new NamedEntityList<>(2048);
+	private final NamedEntityList<Persona> players = new NamedEntityList<>(2048);
 	private RSMap map;
 
 	public World(int id, String name, String host, String activity, int location, int country, int flags) {
@@ -46,6 +46,7 @@ public class World {
 		this.name = name;
 		this.country = country;
 		this.host = host;
+		this.players.enableStore();
 	}
 
 	public int getCountry() {
@@ -76,28 +77,59 @@ public class World {
 		return this.location;
 	}
 
-	public EntityList<Persona> getLobbyPlayers() {
+	public NamedEntityList<Persona> getLobbyPlayers() {
 		return this.lobbyPlayers;
 	}
 
-	public EntityList<Persona> getPlayers() {
+	public NamedEntityList<Persona> getPlayers() {
 		return this.players;
 	}
 
+	/**
+	 * Returns {@code true} if a {@code Persona} with the specified {@code username} is in this
+	 * {@code World}. Names are compared by their base-37 encoding, so case is ignored.
+	 * 
+	 * @param username
+	 *            the name of the persona
+	 * @return true if online; return false otherwise
+	 */
 	public boolean isOnline(String username) {
-		for (Persona persona : players) {
-			if (persona != null && persona.getName().equalsIgnoreCase(username))
-				return true;
-		}
-		return true;
+		return players.contains(username);
 	}
 
+	/**
+	 * Returns {@code true} if a {@code Persona} with the specified {@code username} is in the lobby of
+	 * this {@code World}. Names are compared by their base-37 encoding, so case is ignored.
+	 * 
+	 * @param username
+	 *            the name of the persona
+	 * @return true if in the lobby; return false otherwise
+	 */
 	public boolean isInLobby(String username) {
-		for (Persona persona : lobbyPlayers) {
-			if (persona != null && persona.getName().equalsIgnoreCase(username))
-				return true;
-		}
-		return true;
+		return lobbyPlayers.contains(username);
+	}
+
+	/**
+	 * Returns the {@code Persona} with the specified {@code username} in this {@code World}.
+	 * 
+	 * @param username
+	 *            the name of the persona
+	 * @return the persona; return null if not online
+	 */
+	public Persona getPlayer(String username) {
+		return players.get(username);
+	}
+
+	/**
+	 * Returns the {@code Persona} with the specified {@code username} in the lobby of this
+	 * {@code World}.
+	 * 
+	 * @param username
+	 *            the name of the persona
+	 * @return the persona; return null if not in the lobby
+	 */
+	public Persona getLobbyPlayer(String username) {
+		return lobbyPlayers.get(username);
 	}
 
 	public String toString() {
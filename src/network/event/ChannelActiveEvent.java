@@ -1,9 +1,10 @@
 package network.event;
 
 import io.netty.channel.ChannelHandlerContext;
+import event.AsyncEvent;
 import event.Event;
 
-public class ChannelActiveEvent extends Event {
+public class ChannelActiveEvent extends Event implements AsyncEvent {
 
 	private final ChannelHandlerContext context;
 
@@ -14,4 +15,9 @@ public class ChannelActiveEvent extends Event {
 	public ChannelHandlerContext getContext() {
 		return context;
 	}
+
+	@Override
+	public Object getAsyncKey() {
+		return context.channel();
+	}
 }
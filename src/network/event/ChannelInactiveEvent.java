@@ -1,9 +1,10 @@
 package network.event;
 
 import io.netty.channel.ChannelHandlerContext;
+import event.AsyncEvent;
 import event.Event;
 
-public class ChannelInactiveEvent extends Event {
+public class ChannelInactiveEvent extends Event implements AsyncEvent {
 
 	private final ChannelHandlerContext context;
 
@@ -15,4 +16,9 @@ public class ChannelInactiveEvent extends Event {
 		return context;
 	}
 
+	@Override
+	public Object getAsyncKey() {
+		return context.channel();
+	}
+
 }
@@ -1,9 +1,10 @@
 package network.event;
 
 import io.netty.channel.ChannelHandlerContext;
+import event.AsyncEvent;
 import event.Event;
 
-public class ChannelUnregisteredEvent extends Event {
+public class ChannelUnregisteredEvent extends Event implements AsyncEvent {
 	private final ChannelHandlerContext context;
 
 	public ChannelUnregisteredEvent(ChannelHandlerContext context) {
@@ -13,4 +14,9 @@ public class ChannelUnregisteredEvent extends Event {
 	public ChannelHandlerContext getContext() {
 		return context;
 	}
+
+	@Override
+	public Object getAsyncKey() {
+		return context.channel();
+	}
 }
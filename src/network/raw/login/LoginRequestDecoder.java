@@ -47,6 +47,8 @@ public class LoginRequestDecoder extends ByteToMessageDecoder {
 				throw new UnsupportedOperationException("Revision not supported for login: " + revision);
 
 			Connection connection = new Connection(ctx.channel(), revision);
+			if (GlobalVariables.hasGameCycle())
+				GlobalVariables.getGameCycle().register(connection);
 			ConnectionHolder holder = handler.createConnectionHolder(connection, in, state);
 			ctx.channel().attr(CON_HOLD_KEY).set(holder);
 			ctx.pipeline().replace("handler", "handler", new NetworkHandler(handler, holder, new ISAACCipher(isaacKeysIn)));
@@ -28,6 +28,32 @@ public class StringUtil {
 		return gjStringLength;
 	}
 
+	/**
+	 * Encodes the specified {@code name} into a base-37 {@code long}, in which every letter is case
+	 * insensitive and every character other than a letter or digit is equal to a space. Only the first
+	 * 12 characters of the {@code name} are encoded, and any trailing space is left out.
+	 * 
+	 * @param name
+	 *            the name to encode
+	 * @return the encoded name
+	 */
+	public static long encodeBase37(String name) {
+		long encoded = 0L;
+		for (int i = 0; i < name.length() && i < 12; i++) {
+			char c = name.charAt(i);
+			encoded *= 37L;
+			if (c >= 'A' && c <= 'Z')
+				encoded += 1 + c - 'A';
+			else if (c >= 'a' && c <= 'z')
+				encoded += 1 + c - 'a';
+			else if (c >= '0' && c <= '9')
+				encoded += 27 + c - '0';
+		}
+		while (encoded % 37L == 0L && encoded != 0L)
+			encoded /= 37L;
+		return encoded;
+	}
+
 	public static String withPrefix(String string) {
 		return ((string.startsWith("a") || string.startsWith("e") || string.startsWith("i") || string.startsWith("o") || string.startsWith("u")) ? "an " : "a ") + string;
 	}